@@ -0,0 +1,92 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.alert.AlertStateTracker;
+import io.dyuti.dropwizard.alert.AsyncAlertPublisher;
+import io.dyuti.dropwizard.alert.MetricsAlertPublisher;
+import io.dyuti.dropwizard.config.AlertConfig;
+import io.dyuti.dropwizard.config.AlertTrigger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of reporting an unhealthy evaluation from a health check thread to the alert publisher,
+ * directly, through the async dispatcher and through the edge triggered state tracker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AlertPublisherBenchmark {
+
+  private static final Result UNHEALTHY = Result.unhealthy("Benchmark alert");
+
+  public enum Publisher {
+    METRICS,
+    ASYNC,
+    EDGE
+  }
+
+  @Param({"METRICS", "ASYNC", "EDGE"})
+  private Publisher publisher;
+
+  @Param({"1", "100"})
+  private int healthChecks;
+
+  private String[] names;
+  private AlertPublisher alertPublisher;
+  private AsyncAlertPublisher asyncAlertPublisher;
+
+  @Setup
+  public void setup() {
+    names = new String[healthChecks];
+    for (int i = 0; i < healthChecks; i++) {
+      names[i] = "check-" + i;
+    }
+    var metricsAlertPublisher = new MetricsAlertPublisher(new MetricRegistry());
+    var config = new AlertConfig();
+    alertPublisher = switch (publisher) {
+      case METRICS -> metricsAlertPublisher;
+      case ASYNC -> {
+        asyncAlertPublisher =
+            new AsyncAlertPublisher(metricsAlertPublisher, config, new MetricRegistry());
+        asyncAlertPublisher.start();
+        yield asyncAlertPublisher;
+      }
+      case EDGE -> {
+        config.setTrigger(AlertTrigger.EDGE);
+        yield new AlertStateTracker(metricsAlertPublisher, config);
+      }
+    };
+  }
+
+  @TearDown
+  public void tearDown() throws InterruptedException {
+    if (asyncAlertPublisher != null) {
+      asyncAlertPublisher.stop();
+    }
+  }
+
+  @Benchmark
+  public void onResult() {
+    alertPublisher.onResult(names[ThreadLocalRandom.current().nextInt(names.length)], UNHEALTHY);
+  }
+}
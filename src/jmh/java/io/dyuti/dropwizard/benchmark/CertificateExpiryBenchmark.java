@@ -0,0 +1,74 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import com.sun.net.httpserver.HttpsServer;
+import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.CertificateHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.CertificateExpiryHealthCheck;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a certificate expiry health check. A refresh interval of 0 performs a TLS handshake on
+ * every evaluation, otherwise the cached certificate chain is evaluated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CertificateExpiryBenchmark {
+
+  @Param({"0", "86400000"})
+  private int refreshInterval;
+
+  private ExecutorService executor;
+  private HttpsServer server;
+  private ProbeEngine probeEngine;
+  private CertificateExpiryHealthCheck healthCheck;
+
+  @Setup
+  public void setup() throws Exception {
+    executor = StubServers.executor();
+    server = StubServers.https(executor);
+    probeEngine = new ProbeEngine();
+    probeEngine.start();
+    var config = new CertificateHealthCheckConfig();
+    config.setName("certificate");
+    config.setHost("127.0.0.1");
+    config.setPort(server.getAddress().getPort());
+    config.setWarningDays(0);
+    config.setRefreshInterval(refreshInterval);
+    config.setExpiryRefreshInterval(refreshInterval);
+    healthCheck = new CertificateExpiryHealthCheck(config, new LogAlertPublisher(), probeEngine,
+        new HostResolver(executor, 0), CircuitBreakers.disabled());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    probeEngine.stop();
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public Result evaluate() {
+    return healthCheck.execute();
+  }
+}
@@ -0,0 +1,91 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig;
+import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig.HostNameMode;
+import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig.SelectionMode;
+import io.dyuti.dropwizard.healtcheck.ClusterReachabilityHealthCheck;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a cluster reachability health check probing every host of a cluster on a loopback
+ * listener. PATTERN clusters expand to addresses in 127.0.0.0/8 and listen on the wildcard
+ * address, which relies on the whole range being routed to loopback as it is on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClusterReachabilityBenchmark {
+
+  private static final int HOSTS_PER_SUBNET = 250;
+
+  @Param({"10", "100", "1000"})
+  private int hostCount;
+
+  @Param({"SEQUENTIAL", "PARALLEL", "SAMPLED"})
+  private SelectionMode selectionMode;
+
+  @Param({"LIST", "PATTERN"})
+  private HostNameMode hostNameMode;
+
+  private ExecutorService executor;
+  private ServerSocketChannel listener;
+  private ProbeEngine probeEngine;
+  private ClusterReachabilityHealthCheck healthCheck;
+
+  @Setup
+  public void setup() throws Exception {
+    executor = StubServers.executor();
+    listener = hostNameMode == HostNameMode.PATTERN
+        ? StubServers.tcp(executor, new InetSocketAddress(0)) : StubServers.tcp(executor);
+    probeEngine = new ProbeEngine();
+    probeEngine.start();
+    var port = ((InetSocketAddress) listener.getLocalAddress()).getPort();
+    var config = new ClusterReachabilityHealthCheckConfig();
+    config.setName("cluster");
+    config.setHostNameMode(hostNameMode);
+    config.setHosts(Collections.nCopies(hostCount, "127.0.0.1"));
+    config.setHostNamePattern(hostCount <= HOSTS_PER_SUBNET
+        ? "127.0.0.[1-%d]".formatted(hostCount)
+        : "127.0.[0-%d].[1-%d]".formatted(hostCount / HOSTS_PER_SUBNET - 1, HOSTS_PER_SUBNET));
+    config.setPortRange(port + "-" + (port + 1));
+    config.setSelectionMode(selectionMode);
+    healthCheck = new ClusterReachabilityHealthCheck(config, new LogAlertPublisher(), probeEngine,
+        new HostResolver(executor, 0), CircuitBreakers.disabled());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    probeEngine.stop();
+    listener.close();
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public Result probeCluster() {
+    return healthCheck.execute();
+  }
+}
@@ -0,0 +1,45 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.config.DiskSpaceHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.DiskSpaceHealthCheck;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a disk space health check on the temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiskSpaceBenchmark {
+
+  private DiskSpaceHealthCheck healthCheck;
+
+  @Setup
+  public void setup() {
+    var config = new DiskSpaceHealthCheckConfig();
+    config.setName("disk");
+    config.setPath(System.getProperty("java.io.tmpdir"));
+    config.setThreshold(1);
+    healthCheck = new DiskSpaceHealthCheck(config, new LogAlertPublisher());
+  }
+
+  @Benchmark
+  public Result evaluate() {
+    return healthCheck.execute();
+  }
+}
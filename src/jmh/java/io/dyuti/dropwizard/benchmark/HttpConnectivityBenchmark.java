@@ -0,0 +1,75 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheck.Result;
+import com.sun.net.httpserver.HttpServer;
+import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.HttpHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.HttpConnectivityHealthCheck;
+import io.dyuti.dropwizard.healtcheck.HttpsConnectivityHealthCheck;
+import io.dyuti.dropwizard.http.HttpClientEngine;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a HTTP(s) health check against a loopback stub server. HTTPS checks verify the
+ * certificates of the reused TLS session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpConnectivityBenchmark {
+
+  @Param({"http", "https"})
+  private String scheme;
+
+  private ExecutorService serverExecutor;
+  private ExecutorService clientExecutor;
+  private HttpServer server;
+  private HealthCheck healthCheck;
+
+  @Setup
+  public void setup() throws Exception {
+    serverExecutor = StubServers.executor();
+    clientExecutor = StubServers.executor();
+    server = "https".equals(scheme) ? StubServers.https(serverExecutor)
+        : StubServers.http(serverExecutor);
+    var config = new HttpHealthCheckConfig();
+    config.setName(scheme);
+    config.setUrl("%s://127.0.0.1:%d/".formatted(scheme, server.getAddress().getPort()));
+    config.setVerify(true);
+    var engine = new HttpClientEngine(clientExecutor);
+    var breakers = CircuitBreakers.disabled();
+    healthCheck = "https".equals(scheme)
+        ? new HttpsConnectivityHealthCheck(config, new LogAlertPublisher(), engine, breakers)
+        : new HttpConnectivityHealthCheck(config, new LogAlertPublisher(), engine, breakers);
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+    serverExecutor.shutdownNow();
+    clientExecutor.shutdownNow();
+  }
+
+  @Benchmark
+  public Result request() {
+    return healthCheck.execute();
+  }
+}
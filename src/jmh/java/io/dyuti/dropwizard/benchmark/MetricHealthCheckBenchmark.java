@@ -0,0 +1,77 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dropwizard.setup.Environment;
+import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.config.MetricEvaluation;
+import io.dyuti.dropwizard.config.MetricHealthCheckConfig;
+import io.dyuti.dropwizard.config.MetricMatch;
+import io.dyuti.dropwizard.config.MetricType;
+import io.dyuti.dropwizard.healtcheck.MetricHealthCheck;
+import io.dyuti.dropwizard.metric.MetricIndex;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a metric health check evaluation against registries of increasing size. EXACT reads a
+ * single meter, GLOB and REGEX aggregate one meter per service in the registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricHealthCheckBenchmark {
+
+  private static final int SERVICES = 10;
+
+  @Param({"100", "10000", "100000"})
+  private int registrySize;
+
+  @Param({"EXACT", "GLOB", "REGEX"})
+  private MetricMatch match;
+
+  @Param({"VALUE", "RATE"})
+  private MetricEvaluation evaluation;
+
+  private MetricHealthCheck healthCheck;
+
+  @Setup
+  public void setup() {
+    var environment = new Environment("benchmark");
+    var metrics = environment.metrics();
+    for (int i = 0; i < registrySize; i++) {
+      metrics.meter("service-" + (i % SERVICES) + ".requests." + i).mark(i);
+    }
+    var config = new MetricHealthCheckConfig();
+    config.setName("metric");
+    config.setType(MetricType.METER);
+    config.setDimension("count");
+    config.setThreshold(Long.MAX_VALUE);
+    config.setMatch(match);
+    config.setEvaluation(evaluation);
+    config.setMetric(switch (match) {
+      case EXACT -> "service-0.requests.0";
+      case GLOB -> "service-0.requests.*";
+      case REGEX -> "service-0\\.requests\\.\\d+";
+    });
+    healthCheck = new MetricHealthCheck(environment, config, new LogAlertPublisher(),
+        new MetricIndex(metrics));
+  }
+
+  @Benchmark
+  public Result evaluate() {
+    return healthCheck.execute();
+  }
+}
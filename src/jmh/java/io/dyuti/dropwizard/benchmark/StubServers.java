@@ -0,0 +1,113 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+/**
+ * Loopback endpoints for the network benchmarks. The HTTPS endpoint uses a self-signed certificate
+ * generated with keytool on start.
+ */
+final class StubServers {
+
+  private static final char[] PASSWORD = "benchmark".toCharArray();
+
+  private StubServers() {
+  }
+
+  static HttpServer http(ExecutorService executor) throws IOException {
+    var server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    return start(server, executor);
+  }
+
+  static HttpsServer https(ExecutorService executor) throws Exception {
+    var server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.setHttpsConfigurator(new HttpsConfigurator(selfSignedContext()));
+    return start(server, executor);
+  }
+
+  //Accepts and closes connections so the backlog never fills during connect benchmarks
+  static ServerSocketChannel tcp(ExecutorService executor) throws IOException {
+    return tcp(executor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+  }
+
+  static ServerSocketChannel tcp(ExecutorService executor, InetSocketAddress bindAddress)
+      throws IOException {
+    var channel = ServerSocketChannel.open();
+    channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+    channel.bind(bindAddress, 4096);
+    executor.execute(() -> {
+      while (channel.isOpen()) {
+        try {
+          channel.accept().close();
+        } catch (IOException e) {
+          return;
+        }
+      }
+    });
+    return channel;
+  }
+
+  static ExecutorService executor() {
+    return Executors.newFixedThreadPool(4, runnable -> {
+      var thread = new Thread(runnable, "benchmark-stub-server");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static <T extends HttpServer> T start(T server, ExecutorService executor) {
+    server.createContext("/", StubServers::ok);
+    server.setExecutor(executor);
+    server.start();
+    return server;
+  }
+
+  private static void ok(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      exchange.getRequestBody().readAllBytes();
+      exchange.sendResponseHeaders(200, -1);
+    }
+  }
+
+  private static SSLContext selfSignedContext() throws Exception {
+    var directory = Files.createTempDirectory("benchmark-tls");
+    var keyStorePath = directory.resolve("stub.p12");
+    var keytool = Path.of(System.getProperty("java.home"), "bin", "keytool").toString();
+    var process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "stub", "-keyalg", "RSA",
+        "-keysize", "2048", "-validity", "2", "-dname", "CN=localhost",
+        "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12",
+        "-keystore", keyStorePath.toString(), "-storepass", new String(PASSWORD))
+        .redirectErrorStream(true)
+        .start();
+    process.getInputStream().readAllBytes();
+    if (process.waitFor() != 0) {
+      throw new IllegalStateException("keytool failed to generate the stub certificate");
+    }
+    var keyStore = KeyStore.getInstance("PKCS12");
+    try (InputStream in = Files.newInputStream(keyStorePath)) {
+      keyStore.load(in, PASSWORD);
+    }
+    Files.delete(keyStorePath);
+    Files.delete(directory);
+    var keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+    keyManagers.init(keyStore, PASSWORD);
+    var context = SSLContext.getInstance("TLS");
+    context.init(keyManagers.getKeyManagers(), null, null);
+    return context;
+  }
+}
@@ -0,0 +1,67 @@
+package io.dyuti.dropwizard.benchmark;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.TcpHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.TcpConnectivityHealthCheck;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import java.net.InetSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a TCP health check connecting to a loopback listener through the probe engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TcpConnectivityBenchmark {
+
+  private ExecutorService executor;
+  private ServerSocketChannel listener;
+  private ProbeEngine probeEngine;
+  private TcpConnectivityHealthCheck healthCheck;
+
+  @Setup
+  public void setup() throws Exception {
+    executor = StubServers.executor();
+    listener = StubServers.tcp(executor);
+    probeEngine = new ProbeEngine();
+    probeEngine.start();
+    var config = new TcpHealthCheckConfig();
+    config.setName("tcp");
+    config.setHost("127.0.0.1");
+    config.setPort(((InetSocketAddress) listener.getLocalAddress()).getPort());
+    healthCheck = new TcpConnectivityHealthCheck(config, new LogAlertPublisher(), probeEngine,
+        new HostResolver(executor, 0), CircuitBreakers.disabled());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    probeEngine.stop();
+    listener.close();
+    executor.shutdownNow();
+  }
+
+  @Benchmark
+  public Result connect() {
+    return healthCheck.execute();
+  }
+}
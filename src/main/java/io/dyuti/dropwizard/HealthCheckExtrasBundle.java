@@ -17,25 +17,63 @@ package io.dyuti.dropwizard;
 
 import io.dropwizard.Configuration;
 import io.dropwizard.ConfiguredBundle;
-import io.dropwizard.health.check.tcp.TcpHealthCheck;
+import io.dropwizard.configuration.ConfigurationException;
+import io.dropwizard.configuration.YamlConfigurationFactory;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
 import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.alert.AlertStateTracker;
+import io.dyuti.dropwizard.alert.AsyncAlertPublisher;
 import io.dyuti.dropwizard.alert.LogAlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.AlertTrigger;
+import io.dyuti.dropwizard.config.CertificateHealthCheckConfig;
 import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig.HostListSource;
+import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig;
 import io.dyuti.dropwizard.config.HealthcheckExtrasConfig;
+import io.dyuti.dropwizard.config.HttpHealthCheckConfig;
+import io.dyuti.dropwizard.config.ScheduleConfig;
+import io.dyuti.dropwizard.config.TcpHealthCheckConfig;
+import io.dyuti.dropwizard.config.ThreadMode;
+import io.dyuti.dropwizard.healtcheck.CertificateExpiryHealthCheck;
 import io.dyuti.dropwizard.healtcheck.ClusterReachabilityHealthCheck;
+import io.dyuti.dropwizard.healtcheck.DiskLatencyHealthCheck;
 import io.dyuti.dropwizard.healtcheck.DiskSpaceHealthCheck;
+import io.dyuti.dropwizard.healtcheck.ExtrasHealthCheck;
+import io.dyuti.dropwizard.healtcheck.HealthCheckGraph;
 import io.dyuti.dropwizard.healtcheck.HttpConnectivityHealthCheck;
 import io.dyuti.dropwizard.healtcheck.HttpsConnectivityHealthCheck;
 import io.dyuti.dropwizard.healtcheck.MetricHealthCheck;
+import io.dyuti.dropwizard.healtcheck.TcpConnectivityHealthCheck;
+import io.dyuti.dropwizard.http.HttpClientEngine;
+import io.dyuti.dropwizard.metric.MetricIndex;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import io.dyuti.dropwizard.reload.HealthCheckReloader;
+import io.dyuti.dropwizard.reload.ReloadHealthChecksTask;
+import io.dyuti.dropwizard.reload.ReloadSummary;
+import io.dyuti.dropwizard.scheduler.CheckExecutors;
+import io.dyuti.dropwizard.scheduler.ConcurrentHealthCheckRunner.DeadlineHealthCheck;
+import io.dyuti.dropwizard.scheduler.ConcurrentHealthCheckRunner;
+import io.dyuti.dropwizard.scheduler.HealthCheckScheduler;
+import io.dyuti.dropwizard.scheduler.ScheduledHealthCheck;
+import io.dyuti.dropwizard.servlet.HealthSnapshot;
+import io.dyuti.dropwizard.servlet.HealthSnapshotServlet;
+import io.dyuti.dropwizard.servlet.HealthStream;
+import io.dyuti.dropwizard.servlet.HealthStreamServlet;
+import io.dyuti.dropwizard.shared.SharedResultCache;
+import io.dyuti.dropwizard.state.HealthStates;
+import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 
@@ -46,8 +84,47 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class HealthCheckExtrasBundle<T extends Configuration>
     implements ConfiguredBundle<T> {
 
+  private static final int HTTP_CLIENT_THREADS = 4;
+  private static final int DNS_THREADS = 2;
+
   private AlertPublisher alertPublisher;
 
+  //Publisher used by the registered health checks
+  private AlertPublisher alertDispatcher;
+
+  private HealthCheckScheduler scheduler;
+
+  //Runs the health checks that are not scheduled, when concurrent execution is enabled
+  private ConcurrentHealthCheckRunner runner;
+
+  private ProbeEngine probeEngine;
+
+  private HttpClientEngine httpClientEngine;
+
+  private HealthStates healthStates;
+
+  private Environment environment;
+
+  //Application configuration, only the health check lists are reloaded
+  private HealthcheckExtrasConfig config;
+
+  private CircuitBreakers circuitBreakers;
+
+  private ExecutorService dnsExecutor;
+
+  //Addresses of the TCP and certificate health check hosts, cluster health checks have their own
+  private HostResolver hostResolver;
+
+  private MetricIndex metricIndex;
+
+  //Results shared with the other processes of the host, when enabled
+  private SharedResultCache sharedResults;
+
+  private final HealthCheckGraph healthCheckGraph = new HealthCheckGraph();
+
+  //Registered health checks by name
+  private final Map<String, Registration> registrations = new LinkedHashMap<>();
+
   @Override
   public void initialize(Bootstrap<?> bootstrap) {
     alertPublisher = new LogAlertPublisher();
@@ -66,96 +143,354 @@ public abstract class HealthCheckExtrasBundle<T extends Configuration>
 
   @Override
   public void run(T configuration, Environment environment) {
-    var config = getConfig(configuration);
-    if (Objects.nonNull(config.getTcp()) && !config.getTcp().isEmpty()) {
-      log.info("Registering TCP Health Checks");
-      config
-          .getTcp()
-          .forEach(
-              tcpHealthCheckConfig -> {
-                log.info("Registering TCP Health Check for: {}", tcpHealthCheckConfig);
-                environment
-                    .healthChecks()
-                    .register(
-                        tcpHealthCheckConfig.getName(),
-                        new TcpHealthCheck(
-                            tcpHealthCheckConfig.getHost(),
-                            tcpHealthCheckConfig.getPort(),
-                            Duration.of(
-                                tcpHealthCheckConfig.getConnectTimeout(), ChronoUnit.MILLIS)));
-              });
-    }
-    if (Objects.nonNull(config.getHttp()) && !config.getHttp().isEmpty()) {
-      log.info("Registering HTTP Health Checks");
-      config.getHttp().stream()
-          .filter(c -> !c.getUrl().startsWith("https"))
-          .forEach(
-              httpConfig -> {
-                log.info("Registering Http Health Check for: {}", httpConfig);
-                environment
-                    .healthChecks()
-                    .register(
-                        httpConfig.getName(),
-                        new HttpConnectivityHealthCheck(httpConfig, getAlertPublisher()));
-              });
-      config.getHttp().stream()
-          .filter(c -> c.getUrl().startsWith("https"))
-          .forEach(
-              httpConfig -> {
-                log.info("Registering Https Health Check for: {}", httpConfig);
-                environment
-                    .healthChecks()
-                    .register(
-                        httpConfig.getName(),
-                        new HttpsConnectivityHealthCheck(httpConfig, getAlertPublisher()));
-              });
-    }
-    if (Objects.nonNull(config.getDisk()) && !config.getDisk().isEmpty()) {
-      log.info("Registering Disk Space Health Checks");
-      config
-          .getDisk()
-          .forEach(
-              diskConfig -> {
-                log.info("Registering Disk Space Health Check for: {}", diskConfig);
-                environment
-                    .healthChecks()
-                    .register(
-                        diskConfig.getName(),
-                        new DiskSpaceHealthCheck(diskConfig, getAlertPublisher()));
-              });
-    }
-    if (Objects.nonNull(config.getMetric()) && !config.getMetric().isEmpty()) {
-      log.info("Registering Metric Health Checks");
-      config
-          .getMetric()
-          .forEach(
-              metricHealthCheckConfig -> {
-                log.info("Registering Metric Health Check for: {}", metricHealthCheckConfig);
-                environment
-                    .healthChecks()
-                    .register(
-                        metricHealthCheckConfig.getName(),
-                        new MetricHealthCheck(
-                            environment, metricHealthCheckConfig, getAlertPublisher()));
-              });
-    }
-    if (Objects.nonNull(config.getCluster()) && !config.getCluster().isEmpty()) {
-      log.info("Registering Cluster Reachability Health Checks");
-      config.getCluster().forEach(clusterConfig -> {
-        log.info("Registering Cluster Reachability Health Check for: {}", clusterConfig);
-        if (clusterConfig.getHostListSource() == HostListSource.CONFIG) {
-          environment.healthChecks().register(clusterConfig.getName(),
-              new ClusterReachabilityHealthCheck(clusterConfig, getAlertPublisher()));
-        } else {
-          var source = getHostSource().get(clusterConfig.getName());
-          if (Objects.nonNull(source)) {
-            environment.healthChecks().register(clusterConfig.getName(),
-                new ClusterReachabilityHealthCheck(clusterConfig, getAlertPublisher(), source));
-          } else {
+    this.environment = environment;
+    config = getConfig(configuration);
+    var execution = config.getExecution();
+    probeEngine = new ProbeEngine();
+    environment.lifecycle().manage(probeEngine);
+    httpClientEngine = new HttpClientEngine(CheckExecutors.create(environment,
+        "healthcheck-extras-http-%d", execution.getThreadMode(), HTTP_CLIENT_THREADS));
+    environment.lifecycle().manage(httpClientEngine);
+    //Managed before the scheduler, managed objects are stopped in reverse order and the alerts of
+    //the last scheduled executions must still be flushed
+    alertDispatcher = getAlertPublisher();
+    if (config.getAlerts().isAsync()) {
+      var asyncAlertPublisher =
+          new AsyncAlertPublisher(alertDispatcher, config.getAlerts(), environment.metrics());
+      environment.lifecycle().manage(asyncAlertPublisher);
+      alertDispatcher = asyncAlertPublisher;
+    }
+    if (config.getAlerts().getTrigger() == AlertTrigger.EDGE) {
+      alertDispatcher = new AlertStateTracker(alertDispatcher, config.getAlerts());
+    }
+    //Scheduled health checks only block the scheduler threads unless they run on virtual threads
+    var workers = execution.getThreadMode() == ThreadMode.VIRTUAL
+        ? CheckExecutors.create(environment, "healthcheck-extras-worker-%d", ThreadMode.VIRTUAL,
+            execution.getThreads())
+        : null;
+    scheduler = new HealthCheckScheduler(
+        environment
+            .lifecycle()
+            .scheduledExecutorService("healthcheck-extras-%d", true)
+            .threads(config.getScheduler().getThreads())
+            .build(),
+        workers);
+    environment.lifecycle().manage(scheduler);
+    if (execution.isConcurrent()) {
+      runner = new ConcurrentHealthCheckRunner(CheckExecutors.create(environment,
+          "healthcheck-extras-run-%d", execution.getThreadMode(), execution.getThreads()),
+          execution.getDeadline());
+    }
+    circuitBreakers = new CircuitBreakers(config.getCircuitBreaker());
+    //Threads are only started once network health checks resolve host names
+    dnsExecutor = environment
+        .lifecycle()
+        .executorService("healthcheck-extras-dns-%d")
+        .minThreads(DNS_THREADS)
+        .maxThreads(DNS_THREADS)
+        .build();
+    hostResolver = new HostResolver(dnsExecutor, 0);
+    healthStates = new HealthStates();
+    if (config.getSnapshot().isEnabled()) {
+      var path = config.getSnapshot().getPath();
+      log.info("Serving health snapshot at {}", path);
+      var snapshot = new HealthSnapshot(healthStates, environment.getObjectMapper());
+      environment.admin()
+          .addServlet("healthcheck-extras-snapshot", new HealthSnapshotServlet(snapshot, false))
+          .addMapping(path);
+      environment.admin()
+          .addServlet("healthcheck-extras-snapshot-status",
+              new HealthSnapshotServlet(snapshot, true))
+          .addMapping(path + "/status");
+    }
+    if (config.getStream().isEnabled()) {
+      var path = config.getStream().getPath();
+      log.info("Streaming health check state changes at {}", path);
+      var stream = new HealthStream(healthStates, environment.getObjectMapper(), config.getStream(),
+          environment
+              .lifecycle()
+              .scheduledExecutorService("healthcheck-extras-stream-%d", true)
+              .threads(1)
+              .build());
+      environment.lifecycle().manage(stream);
+      var registration = environment.admin()
+          .addServlet("healthcheck-extras-stream", new HealthStreamServlet(stream));
+      registration.setAsyncSupported(true);
+      registration.addMapping(path);
+    }
+    if (config.getSharedResults().isEnabled()) {
+      try {
+        sharedResults = SharedResultCache.open(config.getSharedResults(), environment
+            .lifecycle()
+            .scheduledExecutorService("healthcheck-extras-shared-%d", true)
+            .threads(1)
+            .build());
+      } catch (IOException e) {
+        throw new IllegalStateException("Unable to open shared results "
+            + config.getSharedResults().getFile(), e);
+      }
+      //Stopped before the scheduler, its last executions evaluate without the released slots
+      environment.lifecycle().manage(sharedResults);
+    }
+    var reload = config.getReload();
+    var checks = config;
+    if (reload.isEnabled()) {
+      Objects.requireNonNull(reload.getFile(), "A file is required to reload health checks");
+      var reloader = new HealthCheckReloader(Path.of(reload.getFile()), reload.isWatch(),
+          new YamlConfigurationFactory<>(HealthcheckExtrasConfig.class,
+              environment.getValidator(), environment.getObjectMapper(), "dw.healthcheck-extras"),
+          this::apply);
+      try {
+        checks = reloader.load().orElse(config);
+      } catch (IOException | ConfigurationException e) {
+        throw new IllegalStateException("Unable to load health checks from " + reload.getFile(), e);
+      }
+      environment.lifecycle().manage(reloader);
+      environment.admin().addTask(new ReloadHealthChecksTask(reloader));
+    }
+    apply(checks);
+  }
+
+  //Registers, reconfigures and unregisters the health checks that differ from the registered ones.
+  //All new health checks are created before any registered one is touched
+  synchronized ReloadSummary apply(HealthcheckExtrasConfig checks) {
+    var definitions = definitions(checks);
+    var added = new ArrayList<String>();
+    var updated = new ArrayList<String>();
+    var removed = new ArrayList<>(registrations.keySet());
+    removed.removeAll(definitions.keySet());
+    var changed = new LinkedHashMap<String, Definition>();
+    definitions.forEach((name, definition) -> {
+      var registration = registrations.get(name);
+      if (Objects.isNull(registration)) {
+        added.add(name);
+        changed.put(name, definition);
+      } else if (!registration.config().equals(definition.config())) {
+        updated.add(name);
+        changed.put(name, definition);
+      }
+    });
+    var healthChecks = create(changed);
+    removed.forEach(name -> {
+      log.info("Unregistering Health Check {}", name);
+      unregister(name);
+      healthStates.remove(name);
+      //Updated health checks keep their alert state, so an alert already sent is still resolved
+      if (alertDispatcher instanceof AlertStateTracker alertStateTracker) {
+        alertStateTracker.remove(name);
+      }
+    });
+    changed.forEach((name, definition) -> {
+      if (registrations.containsKey(name)) {
+        unregister(name);
+      }
+      log.info("Registering {} Health Check for: {}", definition.type(), definition.config());
+      register(name, definition, healthChecks.get(name));
+    });
+    return new ReloadSummary(added, updated, removed);
+  }
+
+  //Health checks that were already created are released when one of them fails to be created
+  private Map<String, ExtrasHealthCheck> create(Map<String, Definition> definitions) {
+    var healthChecks = new LinkedHashMap<String, ExtrasHealthCheck>();
+    try {
+      definitions.forEach((name, definition) ->
+          healthChecks.put(name, definition.factory().get()));
+    } catch (RuntimeException e) {
+      healthChecks.values().forEach(ExtrasHealthCheck::release);
+      throw e;
+    }
+    return healthChecks;
+  }
+
+  //Health checks are only created for the definitions that are registered
+  private Map<String, Definition> definitions(HealthcheckExtrasConfig checks) {
+    var definitions = new LinkedHashMap<String, Definition>();
+    BiConsumer<String, Definition> define = (name, definition) -> {
+      if (Objects.nonNull(definitions.putIfAbsent(name, definition))) {
+        throw new IllegalArgumentException("A health check named " + name + " already exists");
+      }
+    };
+    if (Objects.nonNull(checks.getTcp())) {
+      checks.getTcp().forEach(tcpConfig -> define.accept(tcpConfig.getName(),
+          new Definition("TCP", tcpConfig, tcpConfig.getDependsOn(),
+              resolveSchedule(tcpConfig.getSchedule()),
+              () -> new TcpConnectivityHealthCheck(
+                  tcpConfig, alertDispatcher, probeEngine, hostResolver, circuitBreakers))));
+    }
+    if (Objects.nonNull(checks.getHttp())) {
+      checks.getHttp().forEach(httpConfig -> define.accept(httpConfig.getName(),
+          httpConfig.getUrl().startsWith("https")
+              ? new Definition("Https", httpConfig, httpConfig.getDependsOn(),
+                  resolveSchedule(httpConfig.getSchedule()),
+                  () -> new HttpsConnectivityHealthCheck(
+                      httpConfig, alertDispatcher, httpClientEngine, circuitBreakers))
+              : new Definition("Http", httpConfig, httpConfig.getDependsOn(),
+                  resolveSchedule(httpConfig.getSchedule()),
+                  () -> new HttpConnectivityHealthCheck(
+                      httpConfig, alertDispatcher, httpClientEngine, circuitBreakers))));
+    }
+    if (Objects.nonNull(checks.getDisk())) {
+      checks.getDisk().forEach(diskConfig -> define.accept(diskConfig.getName(),
+          new Definition("Disk Space", diskConfig, diskConfig.getDependsOn(),
+              resolveSchedule(diskConfig.getSchedule()),
+              () -> new DiskSpaceHealthCheck(diskConfig, alertDispatcher))));
+    }
+    if (Objects.nonNull(checks.getDiskLatency())) {
+      checks.getDiskLatency().forEach(latencyConfig -> define.accept(latencyConfig.getName(),
+          new Definition("Disk Latency", latencyConfig, latencyConfig.getDependsOn(),
+              resolveSchedule(latencyConfig.getSchedule()),
+              () -> new DiskLatencyHealthCheck(latencyConfig, alertDispatcher))));
+    }
+    if (Objects.nonNull(checks.getMetric())) {
+      checks.getMetric().forEach(metricConfig -> define.accept(metricConfig.getName(),
+          new Definition("Metric", metricConfig, metricConfig.getDependsOn(),
+              resolveSchedule(metricConfig.getSchedule()),
+              () -> new MetricHealthCheck(
+                  environment, metricConfig, alertDispatcher, metricIndex()))));
+    }
+    if (Objects.nonNull(checks.getCertificate())) {
+      checks.getCertificate().forEach(certificateConfig -> define.accept(
+          certificateConfig.getName(),
+          new Definition("Certificate Expiry", certificateConfig, certificateConfig.getDependsOn(),
+              resolveSchedule(certificateConfig.getSchedule()),
+              () -> new CertificateExpiryHealthCheck(certificateConfig, alertDispatcher,
+                  probeEngine, hostResolver, circuitBreakers))));
+    }
+    if (Objects.nonNull(checks.getCluster())) {
+      checks.getCluster().forEach(clusterConfig -> {
+        Supplier<List<InetSocketAddress>> source = null;
+        if (clusterConfig.getHostListSource() != HostListSource.CONFIG) {
+          source = getHostSource().get(clusterConfig.getName());
+          if (Objects.isNull(source)) {
             log.error("No host source found for: {}", clusterConfig.getHostListSource());
+            return;
           }
         }
+        var hostSource = source;
+        define.accept(clusterConfig.getName(),
+            new Definition("Cluster Reachability", clusterConfig, clusterConfig.getDependsOn(),
+                resolveClusterSchedule(clusterConfig),
+                () -> new ClusterReachabilityHealthCheck(clusterConfig, alertDispatcher,
+                    probeEngine, new HostResolver(dnsExecutor, clusterConfig.getDnsTtl()),
+                    circuitBreakers, hostSource)));
+      });
+    }
+    var dependencies = new LinkedHashMap<String, List<String>>();
+    definitions.forEach((name, definition) -> dependencies.put(name, definition.dependsOn()));
+    HealthCheckGraph.verify(dependencies);
+    //The snapshot only changes when health checks run, unscheduled ones would stay pending
+    if (config.getSnapshot().isEnabled()) {
+      definitions.forEach((name, definition) -> {
+        if (Objects.isNull(definition.schedule())) {
+          throw new IllegalArgumentException(
+              "Health check " + name + " must be scheduled to be served by the health snapshot");
+        }
       });
     }
+    return definitions;
+  }
+
+  private void register(String name, Definition definition, ExtrasHealthCheck healthCheck) {
+    var schedule = definition.schedule();
+    healthCheck.instrument(environment.metrics());
+    healthCheck.track(healthStates);
+    healthCheck.dependOn(healthCheckGraph, definition.dependsOn());
+    healthCheckGraph.add(healthCheck);
+    if (Objects.nonNull(sharedResults) && isShareable(definition.config())) {
+      share(name, definition, healthCheck);
+    }
+    ScheduledHealthCheck scheduled = null;
+    DeadlineHealthCheck deadline = null;
+    if (Objects.isNull(schedule) && Objects.nonNull(runner)) {
+      deadline = runner.add(name, healthCheck, definition.dependsOn());
+      environment.healthChecks().register(name, deadline);
+    } else if (Objects.isNull(schedule)) {
+      environment.healthChecks().register(name, healthCheck);
+    } else {
+      if (schedule.isAdaptive()) {
+        log.info("Scheduling Health Check {} every {} to {} ms", name, schedule.getInterval(),
+            schedule.getMaxInterval());
+      } else {
+        log.info("Scheduling Health Check {} every {} ms", name, schedule.getInterval());
+      }
+      scheduled = scheduler.schedule(name, healthCheck, schedule);
+      environment.healthChecks().register(name, scheduled);
+    }
+    registrations.put(name,
+        new Registration(definition.config(), healthCheck, scheduled, deadline));
+  }
+
+  private void unregister(String name) {
+    var registration = registrations.remove(name);
+    environment.healthChecks().unregister(name);
+    if (Objects.nonNull(registration.scheduled())) {
+      scheduler.cancel(registration.scheduled());
+    }
+    if (Objects.nonNull(registration.deadline())) {
+      runner.remove(registration.deadline());
+    }
+    registration.healthCheck().release();
+    healthCheckGraph.remove(name);
+  }
+
+  //A result is served to other processes for the interval of the health check
+  private void share(String name, Definition definition, ExtrasHealthCheck healthCheck) {
+    var maxAge = Objects.nonNull(definition.schedule()) ? definition.schedule().getInterval()
+        : config.getSharedResults().getMaxAge();
+    var slot = sharedResults.slot(
+        SharedResultCache.key(definition.type(), definition.config()), maxAge);
+    if (Objects.isNull(slot)) {
+      log.warn("No free shared result slot for health check {}", name);
+    } else {
+      healthCheck.share(slot);
+    }
+  }
+
+  //Network health checks only, the hosts of a dynamic source are not part of the definition
+  private static boolean isShareable(Object checkConfig) {
+    return checkConfig instanceof TcpHealthCheckConfig
+        || checkConfig instanceof HttpHealthCheckConfig
+        || checkConfig instanceof CertificateHealthCheckConfig
+        || checkConfig instanceof ClusterReachabilityHealthCheckConfig clusterConfig
+        && clusterConfig.getHostListSource() == HostListSource.CONFIG;
+  }
+
+  //Shared by all metric health checks so metric handles are resolved once
+  private MetricIndex metricIndex() {
+    if (Objects.isNull(metricIndex)) {
+      metricIndex = new MetricIndex(environment.metrics());
+    }
+    return metricIndex;
+  }
+
+  private ScheduleConfig resolveSchedule(ScheduleConfig schedule) {
+    if (Objects.nonNull(schedule)) {
+      return schedule;
+    }
+    return config.getScheduler().isEnabled() ? config.getScheduler().getDefaults() : null;
+  }
+
+  //Cluster health checks always run in the background using checkInterval unless overridden
+  private ScheduleConfig resolveClusterSchedule(
+      ClusterReachabilityHealthCheckConfig clusterConfig) {
+    if (Objects.nonNull(clusterConfig.getSchedule())) {
+      return clusterConfig.getSchedule();
+    }
+    return new ScheduleConfig(clusterConfig.getCheckInterval(),
+        config.getScheduler().getDefaults().getJitter(), 0);
+  }
+
+  /**
+   * Health check of the configuration, compared by its configuration on reload.
+   */
+  private record Definition(String type, Object config, List<String> dependsOn,
+                            ScheduleConfig schedule, Supplier<ExtrasHealthCheck> factory) {
+
+  }
+
+  private record Registration(Object config, ExtrasHealthCheck healthCheck,
+                              ScheduledHealthCheck scheduled, DeadlineHealthCheck deadline) {
+
   }
 }
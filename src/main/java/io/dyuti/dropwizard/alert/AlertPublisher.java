@@ -1,7 +1,24 @@
 package io.dyuti.dropwizard.alert;
 
 import com.codahale.metrics.health.HealthCheck.Result;
+import java.util.Map;
 
 public interface AlertPublisher {
   void publish(String name, Result result);
+
+  //Publishers that support batching can override this to publish a batch of alerts at once
+  default void publishAll(Map<String, Result> alerts) {
+    alerts.forEach(this::publish);
+  }
+
+  //Called when a health check that was alerted on is healthy again
+  default void resolve(String name, Result result) {
+  }
+
+  //Called with the result of every health check evaluation, unhealthy results are published
+  default void onResult(String name, Result result) {
+    if (!result.isHealthy()) {
+      publish(name, result);
+    }
+  }
 }
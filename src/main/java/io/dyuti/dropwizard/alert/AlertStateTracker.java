@@ -0,0 +1,104 @@
+package io.dyuti.dropwizard.alert;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.config.AlertConfig;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alert publisher that is notified of every health check evaluation and only publishes state
+ * changes. An alert is published when a health check becomes unhealthy and a recovery when it is
+ * healthy again. A change needs a configured number of consecutive evaluations to damp flapping,
+ * alerts within the cooldown of the previous alert are held back until it expires, and the alert
+ * is repeated on the repeat interval while the health check stays unhealthy.
+ */
+public class AlertStateTracker implements AlertPublisher {
+
+  private final AlertPublisher delegate;
+  private final AlertConfig config;
+  private final long cooldown;
+  private final long repeatInterval;
+  private final Map<String, State> states = new ConcurrentHashMap<>();
+
+  public AlertStateTracker(AlertPublisher delegate, AlertConfig config) {
+    this.delegate = delegate;
+    this.config = config;
+    this.cooldown = TimeUnit.MILLISECONDS.toNanos(config.getCooldown());
+    this.repeatInterval = TimeUnit.MILLISECONDS.toNanos(config.getRepeatInterval());
+  }
+
+  //Results published directly are treated as evaluations
+  @Override
+  public void publish(String name, Result result) {
+    onResult(name, result);
+  }
+
+  @Override
+  public void onResult(String name, Result result) {
+    var state = states.computeIfAbsent(name, k -> new State(System.nanoTime() - cooldown));
+    Event event;
+    synchronized (state) {
+      event = state.next(result.isHealthy(), System.nanoTime());
+    }
+    switch (event) {
+      case ALERT -> delegate.publish(name, result);
+      case RECOVERY -> delegate.resolve(name, result);
+      case NONE -> {
+        //No state change to publish
+      }
+    }
+  }
+
+  //Forgets a health check that is no longer registered, re-registering it starts healthy
+  public void remove(String name) {
+    states.remove(name);
+  }
+
+  private enum Event {
+    NONE,
+    ALERT,
+    RECOVERY
+  }
+
+  private final class State {
+    private boolean unhealthy;
+    private boolean alerted;
+    private int streak;
+    private long lastAlertAt;
+
+    private State(long lastAlertAt) {
+      this.lastAlertAt = lastAlertAt;
+    }
+
+    private Event next(boolean healthy, long now) {
+      if (healthy != unhealthy) {
+        streak = 0;
+        if (unhealthy && (alerted ? repeatInterval > 0 && now - lastAlertAt >= repeatInterval
+            : now - lastAlertAt >= cooldown)) {
+          return alert(now);
+        }
+        return Event.NONE;
+      }
+      if (++streak < (healthy ? config.getRecoveryThreshold() : config.getFailureThreshold())) {
+        return Event.NONE;
+      }
+      streak = 0;
+      unhealthy = !healthy;
+      if (unhealthy) {
+        return now - lastAlertAt >= cooldown ? alert(now) : Event.NONE;
+      }
+      if (alerted) {
+        alerted = false;
+        return Event.RECOVERY;
+      }
+      return Event.NONE;
+    }
+
+    private Event alert(long now) {
+      alerted = true;
+      lastAlertAt = now;
+      return Event.ALERT;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package io.dyuti.dropwizard.alert;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dropwizard.lifecycle.Managed;
+import io.dyuti.dropwizard.config.AlertConfig;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Alert publisher that hands alerts to a background dispatcher thread, so publishing never blocks a
+ * health check. Only the latest alert per health check is kept while it is pending, alerts are
+ * published in batches by count or flush interval, and alerts for new health checks are dropped
+ * when the queue is full. Recoveries share the queue: a recovery is delivered after the pending
+ * alert of its health check, and a new alert replaces a pending alert together with its recovery.
+ * Pending alerts are flushed on shutdown.
+ */
+@Slf4j
+public class AsyncAlertPublisher implements AlertPublisher, Managed {
+
+  private final AlertPublisher delegate;
+  private final AlertConfig config;
+  private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+  private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final Counter dropped;
+  private final Counter coalesced;
+  private final Counter published;
+  private volatile boolean running;
+  private Thread dispatcher;
+
+  public AsyncAlertPublisher(AlertPublisher delegate, AlertConfig config,
+      MetricRegistry metricRegistry) {
+    this.delegate = delegate;
+    this.config = config;
+    this.dropped = metricRegistry.counter(MetricRegistry.name(getClass(), "dropped"));
+    this.coalesced = metricRegistry.counter(MetricRegistry.name(getClass(), "coalesced"));
+    this.published = metricRegistry.counter(MetricRegistry.name(getClass(), "published"));
+  }
+
+  @Override
+  public void publish(String name, Result result) {
+    enqueue(name, result);
+  }
+
+  @Override
+  public void resolve(String name, Result result) {
+    enqueue(name, result);
+  }
+
+  private void enqueue(String name, Result result) {
+    if (pending.computeIfPresent(name, (key, queued) -> queued.merge(result)) != null) {
+      coalesced.inc();
+      return;
+    }
+    if (size.incrementAndGet() > config.getQueueSize()) {
+      size.decrementAndGet();
+      dropped.inc();
+      return;
+    }
+    if (pending.putIfAbsent(name, Pending.of(result)) != null) {
+      size.decrementAndGet();
+      pending.computeIfPresent(name, (key, queued) -> queued.merge(result));
+      coalesced.inc();
+      return;
+    }
+    queue.offer(name);
+    if (size.get() >= config.getBatchSize() && running) {
+      LockSupport.unpark(dispatcher);
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    dispatcher = new Thread(this::dispatch, "healthcheck-extras-alerts");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  @Override
+  public synchronized void stop() throws InterruptedException {
+    if (!running) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(dispatcher);
+    dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  private void dispatch() {
+    var flushInterval = TimeUnit.MILLISECONDS.toNanos(config.getFlushInterval());
+    while (running) {
+      LockSupport.parkNanos(this, flushInterval);
+      flush();
+    }
+    flush();
+  }
+
+  private void flush() {
+    while (!queue.isEmpty()) {
+      var batch = new LinkedHashMap<String, Result>();
+      var recoveries = new LinkedHashMap<String, Result>();
+      String name;
+      while (batch.size() + recoveries.size() < config.getBatchSize()
+          && (name = queue.poll()) != null) {
+        size.decrementAndGet();
+        var queued = pending.remove(name);
+        if (queued != null && queued.alert() != null) {
+          batch.put(name, queued.alert());
+        }
+        if (queued != null && queued.recovery() != null) {
+          recoveries.put(name, queued.recovery());
+        }
+      }
+      if (!batch.isEmpty()) {
+        try {
+          delegate.publishAll(batch);
+          published.inc(batch.size());
+        } catch (Exception e) {
+          log.error("Error publishing {} health check alerts", batch.size(), e);
+        }
+      }
+      recoveries.forEach(this::deliverRecovery);
+    }
+  }
+
+  private void deliverRecovery(String name, Result result) {
+    try {
+      delegate.resolve(name, result);
+      published.inc();
+    } catch (Exception e) {
+      log.error("Error publishing recovery of health check {}", name, e);
+    }
+  }
+
+  /**
+   * Alert and recovery of a health check waiting to be delivered, the alert is delivered first.
+   */
+  private record Pending(Result alert, Result recovery) {
+
+    private static Pending of(Result result) {
+      return result.isHealthy() ? new Pending(null, result) : new Pending(result, null);
+    }
+
+    //An alert after a recovery means the health check failed again, so both are replaced
+    private Pending merge(Result result) {
+      return result.isHealthy() ? new Pending(alert, result) : new Pending(result, null);
+    }
+  }
+}
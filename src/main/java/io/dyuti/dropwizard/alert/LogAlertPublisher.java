@@ -9,4 +9,9 @@ public class LogAlertPublisher implements AlertPublisher {
   public void publish(String name, Result result) {
     log.error("Health check {} result: {}", name, result);
   }
+
+  @Override
+  public void resolve(String name, Result result) {
+    log.info("Health check {} recovered: {}", name, result);
+  }
 }
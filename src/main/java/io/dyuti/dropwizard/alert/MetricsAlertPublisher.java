@@ -12,9 +12,12 @@ public class MetricsAlertPublisher implements AlertPublisher {
 
   private final Map<String, Counter> alertCounters;
 
+  private final Map<String, Counter> recoveryCounters;
+
   public MetricsAlertPublisher(MetricRegistry metricRegistry) {
     this.metricRegistry = metricRegistry;
     alertCounters = new ConcurrentHashMap<>();
+    recoveryCounters = new ConcurrentHashMap<>();
   }
 
   public void publish(String name, Result result) {
@@ -22,4 +25,11 @@ public class MetricsAlertPublisher implements AlertPublisher {
         .computeIfAbsent(name, k -> metricRegistry.counter(k + ".healthcheck.alerts"))
         .inc();
   }
+
+  @Override
+  public void resolve(String name, Result result) {
+    recoveryCounters
+        .computeIfAbsent(name, k -> metricRegistry.counter(k + ".healthcheck.recoveries"))
+        .inc();
+  }
 }
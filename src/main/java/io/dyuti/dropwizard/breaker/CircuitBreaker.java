@@ -0,0 +1,105 @@
+package io.dyuti.dropwizard.breaker;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.config.CircuitBreakerConfig;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for a single network target. The circuit opens after consecutive failures and
+ * the target is then only probed by a single trial once the backoff expires. A successful trial
+ * closes the circuit, a failed one opens it again with an exponentially longer backoff.
+ */
+public class CircuitBreaker {
+
+  static final CircuitBreaker DISABLED = new CircuitBreaker("disabled", null);
+
+  private enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final String target;
+  private final CircuitBreakerConfig config;
+  private State state = State.CLOSED;
+  private int failures;
+  private int trials;
+  private long retryAt;
+  private Result lastFailure;
+
+  CircuitBreaker(String target, CircuitBreakerConfig config) {
+    this.target = target;
+    this.config = config;
+  }
+
+  String target() {
+    return target;
+  }
+
+  //Returns true when the target may be probed, a trial is allowed once per backoff
+  public synchronized boolean allow() {
+    if (config == null || state == State.CLOSED) {
+      return true;
+    }
+    var now = System.nanoTime();
+    if (now - retryAt < 0) {
+      return false;
+    }
+    state = State.HALF_OPEN;
+    //Another trial is allowed if this one is never recorded
+    retryAt = now + backoffNanos();
+    return true;
+  }
+
+  //Result returned instead of probing while the circuit is open
+  public synchronized Result openResult() {
+    var retryIn = Math.max(0, TimeUnit.NANOSECONDS.toMillis(retryAt - System.nanoTime()));
+    var message = "Circuit open for %s after %d failures, next probe in %d ms"
+        .formatted(target, failures, retryIn);
+    return Result.builder()
+        .unhealthy()
+        .withMessage(lastFailure == null ? message : message + ". " + lastFailure.getMessage())
+        .withDetail("circuit", state.name())
+        .withDetail("retryIn", retryIn)
+        .build();
+  }
+
+  public Result record(Result result) {
+    record(result.isHealthy(), result);
+    return result;
+  }
+
+  public void record(boolean success) {
+    record(success, null);
+  }
+
+  private synchronized void record(boolean success, Result result) {
+    if (config == null) {
+      return;
+    }
+    if (success) {
+      state = State.CLOSED;
+      failures = 0;
+      trials = 0;
+      lastFailure = null;
+      return;
+    }
+    failures++;
+    lastFailure = result;
+    if (state == State.HALF_OPEN) {
+      trials++;
+    } else if (state == State.OPEN || failures < config.getFailureThreshold()) {
+      return;
+    }
+    state = State.OPEN;
+    retryAt = System.nanoTime() + backoffNanos();
+  }
+
+  private long backoffNanos() {
+    var backoff = Math.min(config.getMaxBackoff(),
+        config.getInitialBackoff() * Math.pow(config.getMultiplier(), trials));
+    var jitter = backoff * config.getJitter() * ThreadLocalRandom.current().nextDouble(-1, 1);
+    return TimeUnit.MILLISECONDS.toNanos((long) Math.max(1, backoff + jitter));
+  }
+}
@@ -0,0 +1,56 @@
+package io.dyuti.dropwizard.breaker;
+
+import io.dyuti.dropwizard.config.CircuitBreakerConfig;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Circuit breakers of the network health checks, one per target and shared by every health check
+ * that contacts the target. When disabled every target gets a breaker that never opens. A breaker
+ * is counted by the health checks holding it and removed once the last one releases it, so the
+ * targets of health checks removed by a reload are not kept.
+ */
+public class CircuitBreakers {
+
+  private final CircuitBreakerConfig config;
+  //Guarded by this
+  private final Map<String, Held> breakers = new HashMap<>();
+
+  public CircuitBreakers(CircuitBreakerConfig config) {
+    this.config = config;
+  }
+
+  public static CircuitBreakers disabled() {
+    return new CircuitBreakers(new CircuitBreakerConfig());
+  }
+
+  //Must be released by the health check once it is unregistered
+  public synchronized CircuitBreaker acquire(String target) {
+    if (!config.isEnabled()) {
+      return CircuitBreaker.DISABLED;
+    }
+    var held = breakers.computeIfAbsent(target, key -> new Held(new CircuitBreaker(key, config)));
+    held.holders++;
+    return held.breaker;
+  }
+
+  public synchronized void release(CircuitBreaker breaker) {
+    var held = breakers.get(breaker.target());
+    if (held != null && held.breaker == breaker && --held.holders == 0) {
+      breakers.remove(breaker.target());
+    }
+  }
+
+  synchronized int size() {
+    return breakers.size();
+  }
+
+  private static final class Held {
+    private final CircuitBreaker breaker;
+    private int holders;
+
+    private Held(CircuitBreaker breaker) {
+      this.breaker = breaker;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package io.dyuti.dropwizard.breaker;
+
+/**
+ * Reported for probes that were not attempted because the circuit of the target is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  public CircuitOpenException(String target) {
+    super("Circuit open for " + target);
+  }
+}
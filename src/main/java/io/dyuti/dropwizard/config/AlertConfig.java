@@ -0,0 +1,38 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for dispatching alerts to the alert publisher
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertConfig {
+  //Dispatch alerts from a background thread so health checks never block on the publisher
+  private boolean async;
+  //Maximum number of distinct health checks with a pending alert. Further alerts are dropped
+  @Min(1)
+  private int queueSize = 1024;
+  @Min(1)
+  private int batchSize = 100;
+  @Min(10)
+  private int flushInterval = 1000;
+  //LEVEL publishes every unhealthy evaluation, EDGE publishes only alerts and recoveries
+  private AlertTrigger trigger = AlertTrigger.LEVEL;
+  //Consecutive unhealthy evaluations before a healthy check is alerted on
+  @Min(1)
+  private int failureThreshold = 1;
+  //Consecutive healthy evaluations before an unhealthy check is recovered
+  @Min(1)
+  private int recoveryThreshold = 1;
+  //Minimum time between two alerts for the same health check
+  @Min(0)
+  private long cooldown;
+  //Interval at which the alert is repeated while the health check stays unhealthy, 0 disables it
+  @Min(0)
+  private long repeatInterval;
+}
@@ -0,0 +1,46 @@
+package io.dyuti.dropwizard.config;
+
+import java.util.Collections;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for TLS Certificate Expiry Health Check
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CertificateHealthCheckConfig {
+  @NotBlank
+  private String name;
+  @NotBlank
+  private String host;
+  @Min(1)
+  @Max(65535)
+  private int port = 443;
+  //Deadline for connect and TLS handshake
+  @Min(1000)
+  private int timeout = 5000;
+  @NotBlank
+  private String tlsVersion = "TLS";
+  //Health check fails when any certificate in the chain expires within these many days
+  @Min(1)
+  private int warningDays = 30;
+  //Interval for refreshing the cached certificate chain
+  @Min(60000)
+  private int refreshInterval = 86400000;
+  //Interval for refreshing the cached certificate chain once it is within the warning horizon
+  @Min(60000)
+  private int expiryRefreshInterval = 3600000;
+  private HealthCheckMode mode = HealthCheckMode.NORMAL;
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
+}
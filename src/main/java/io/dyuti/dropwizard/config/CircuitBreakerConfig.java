@@ -0,0 +1,33 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for the circuit breakers of the network health checks. An open circuit returns the
+ * last failure without contacting the target until the backoff expires.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CircuitBreakerConfig {
+  private boolean enabled;
+  //Consecutive failures that open the circuit
+  @Min(1)
+  private int failureThreshold = 3;
+  //Backoff before the first trial probe, multiplied after every failed trial
+  @Min(100)
+  private long initialBackoff = 5000;
+  @Min(100)
+  private long maxBackoff = 300000;
+  @DecimalMin("1.0")
+  private double multiplier = 2.0;
+  //Fraction of the backoff that is randomly added or removed
+  @DecimalMin("0.0")
+  @DecimalMax("1.0")
+  private double jitter = 0.2;
+}
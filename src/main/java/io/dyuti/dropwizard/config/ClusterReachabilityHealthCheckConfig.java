@@ -2,6 +2,9 @@ package io.dyuti.dropwizard.config;
 
 import java.util.Collections;
 import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -15,7 +18,7 @@ import lombok.NoArgsConstructor;
 public class ClusterReachabilityHealthCheckConfig {
 
   public enum SelectionMode {
-    RANDOM, SEQUENTIAL
+    RANDOM, SEQUENTIAL, PARALLEL, SAMPLED
   }
 
   public enum HostNameMode {
@@ -32,7 +35,7 @@ public class ClusterReachabilityHealthCheckConfig {
   private List<String> hosts = Collections.emptyList();
   @NotBlank
   private String portRange;
-  @Min(1000)
+  @Min(100)
   private int connectTimeout = 1000;
   @Min(60000)
   private int checkInterval = 43200000;
@@ -44,4 +47,25 @@ public class ClusterReachabilityHealthCheckConfig {
   private SelectionMode selectionMode = SelectionMode.RANDOM;
   @NotNull
   private HostListSource hostListSource = HostListSource.CONFIG;
+  //Maximum number of connects in flight in PARALLEL mode
+  @Min(1)
+  private int maxConcurrency = 256;
+  //Overall deadline for probing all hosts in PARALLEL mode
+  @Min(1000)
+  private int deadline = 5000;
+  //Number of hosts probed per check in SAMPLED mode
+  @Min(1)
+  private int sampleSize = 50;
+  //Minimum percentage of reachable hosts for the cluster to be healthy in PARALLEL and SAMPLED mode
+  @DecimalMin("0.0")
+  @DecimalMax("100.0")
+  private double quorum = 100.0;
+  //Time after which cached host addresses are resolved again, 0 uses networkaddress.cache.ttl
+  @Min(0)
+  private long dnsTtl;
+  //Overrides checkInterval when specified
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
 }
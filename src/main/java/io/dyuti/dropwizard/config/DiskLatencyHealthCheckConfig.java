@@ -0,0 +1,49 @@
+package io.dyuti.dropwizard.config;
+
+import java.util.Collections;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for Disk Write Latency Health Check. A block is written to a probe file in the
+ * directory and forced to the device, the percentile of the recent force latencies is checked.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DiskLatencyHealthCheckConfig {
+  @NotBlank
+  private String name;
+  //Directory on the storage to probe, the probe file is created in it and reused
+  @NotBlank
+  private String path;
+  @Min(512)
+  @Max(1048576)
+  private int blockSize = 4096;
+  //Synced writes per evaluation
+  @Min(1)
+  @Max(100)
+  private int writes = 3;
+  //Latencies the percentile is computed over
+  @Min(1)
+  private int samples = 100;
+  @DecimalMin("0.0")
+  @DecimalMax("100.0")
+  private double percentile = 99.0;
+  //Maximum latency of the percentile in ms, fractional for sub-millisecond budgets
+  @DecimalMin(value = "0.0", inclusive = false)
+  private double threshold = 500;
+  private HealthCheckMode mode = HealthCheckMode.NORMAL;
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
+}
@@ -1,5 +1,11 @@
 package io.dyuti.dropwizard.config;
 
+import java.util.Collections;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -7,7 +13,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Configuration for Disk Space Health Check
+ * Configuration for Disk Space Health Check. Every path is checked on the file store it resides on
+ * against the absolute and percentage thresholds and the projected time until it is full.
  */
 @Data
 @NoArgsConstructor
@@ -15,9 +22,38 @@ import lombok.NoArgsConstructor;
 public class DiskSpaceHealthCheckConfig {
   @NotBlank
   private String name;
-  @NotBlank
   private String path;
-  @Min(102400)
+  //Additional paths, so one health check can cover many mount points
+  private List<@NotBlank String> paths = Collections.emptyList();
+  //Minimum usable space in KB, 0 disables the check
+  @Min(0)
   private long threshold;
+  //Minimum usable space as a percentage of the total space, 0 disables the check
+  @DecimalMin("0.0")
+  @DecimalMax("100.0")
+  private double minUsablePercent;
+  //Unhealthy when the store is projected to be full within this many ms, 0 disables the check
+  @Min(0)
+  private long horizon;
+  //Usable space samples the fill rate is estimated from
+  @Min(3)
+  private int samples = 60;
+  //Minimum time between samples in ms, so frequent evaluations do not shrink the fitted span
+  @Min(0)
+  private long sampleInterval = 60000;
   private HealthCheckMode mode = HealthCheckMode.NORMAL;
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
+
+  @AssertTrue(message = "path or paths is required")
+  public boolean isPathConfigured() {
+    return path != null && !path.isBlank() || paths != null && !paths.isEmpty();
+  }
+
+  @AssertTrue(message = "threshold, minUsablePercent or horizon is required")
+  public boolean isLimitConfigured() {
+    return threshold > 0 || minUsablePercent > 0 || horizon > 0;
+  }
 }
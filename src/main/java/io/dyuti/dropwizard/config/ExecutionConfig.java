@@ -0,0 +1,27 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for running the health checks of the bundle concurrently when they are requested.
+ * Health checks that do not complete within the deadline report their last known result. The
+ * thread mode applies to every executor that runs health checks or their probes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ExecutionConfig {
+  private boolean concurrent;
+  @Min(1)
+  private int threads = 4;
+  //Overall time in millis all health checks of one request may take
+  @Min(1)
+  private long deadline = 1500;
+  //Virtual threads need Java 21, older runtimes fall back to a pool of platform threads
+  @NotNull
+  private ThreadMode threadMode = ThreadMode.PLATFORM;
+}
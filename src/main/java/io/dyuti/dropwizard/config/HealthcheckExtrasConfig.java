@@ -2,6 +2,7 @@ package io.dyuti.dropwizard.config;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,9 +14,34 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 public class HealthcheckExtrasConfig {
+  @Valid
   private List<TcpHealthCheckConfig> tcp = new ArrayList<>();
+  @Valid
   private List<HttpHealthCheckConfig> http = new ArrayList<>();
+  @Valid
   private List<DiskSpaceHealthCheckConfig> disk = new ArrayList<>();
+  @Valid
+  private List<DiskLatencyHealthCheckConfig> diskLatency = new ArrayList<>();
+  @Valid
   private List<MetricHealthCheckConfig> metric = new ArrayList<>();
+  @Valid
   private List<ClusterReachabilityHealthCheckConfig> cluster = new ArrayList<>();
+  @Valid
+  private List<CertificateHealthCheckConfig> certificate = new ArrayList<>();
+  @Valid
+  private SchedulerConfig scheduler = new SchedulerConfig();
+  @Valid
+  private AlertConfig alerts = new AlertConfig();
+  @Valid
+  private CircuitBreakerConfig circuitBreaker = new CircuitBreakerConfig();
+  @Valid
+  private ExecutionConfig execution = new ExecutionConfig();
+  @Valid
+  private SnapshotConfig snapshot = new SnapshotConfig();
+  @Valid
+  private StreamConfig stream = new StreamConfig();
+  @Valid
+  private ReloadConfig reload = new ReloadConfig();
+  @Valid
+  private SharedResultsConfig sharedResults = new SharedResultsConfig();
 }
@@ -1,5 +1,8 @@
 package io.dyuti.dropwizard.config;
 
+import java.util.Collections;
+import java.util.List;
+import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -24,4 +27,8 @@ public class HttpHealthCheckConfig {
   private boolean verify;
   private String tlsVersion = "TLSv1.2";
   private HealthCheckMode mode = HealthCheckMode.NORMAL;
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
 }
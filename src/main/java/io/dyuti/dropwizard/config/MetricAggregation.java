@@ -0,0 +1,7 @@
+package io.dyuti.dropwizard.config;
+
+public enum MetricAggregation {
+  SUM,
+  MAX,
+  ANY
+}
@@ -0,0 +1,8 @@
+package io.dyuti.dropwizard.config;
+
+public enum MetricEvaluation {
+  VALUE,
+  RATE,
+  EWMA,
+  SLOPE
+}
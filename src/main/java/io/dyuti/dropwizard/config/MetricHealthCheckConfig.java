@@ -1,5 +1,12 @@
 package io.dyuti.dropwizard.config;
 
+import java.util.Collections;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -22,8 +29,43 @@ public class MetricHealthCheckConfig {
   private MetricType type;
   @NotBlank
   private String dimension = "m1_rate";
-  @Min(0)
-  private long threshold;
+  //May be fractional, and negative to bound a falling RATE or SLOPE
+  private double threshold;
+  //GLOB and REGEX treat metric as a selector over all metrics of the given type
+  @NotNull
+  private MetricMatch match = MetricMatch.EXACT;
+  //Aggregation of the selected metrics for GLOB and REGEX selectors
+  @NotNull
+  private MetricAggregation aggregation = MetricAggregation.MAX;
+  //Statistic compared with the threshold. RATE, EWMA and SLOPE are computed over a sample window
+  @NotNull
+  private MetricEvaluation evaluation = MetricEvaluation.VALUE;
+  @NotNull
+  private ThresholdComparison comparison = ThresholdComparison.ABOVE;
+  //Number of samples kept for RATE and SLOPE evaluation
+  @Min(2)
+  @Max(1024)
+  private int window = 10;
+  @DecimalMin("0.01")
+  @DecimalMax("1.0")
+  private double ewmaAlpha = 0.3;
+  //Health check fails when at least breaches of the last breachWindow evaluations breached.
+  //The history of evaluations is a 64 bit mask, so breachWindow is at most 64
+  @Min(1)
+  @Max(64)
+  private int breaches = 1;
+  @Min(1)
+  @Max(64)
+  private int breachWindow = 1;
 
   private HealthCheckMode mode = HealthCheckMode.NORMAL;
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
+
+  @AssertTrue(message = "breaches must not exceed breachWindow")
+  public boolean isBreachWindowSufficient() {
+    return breaches <= breachWindow;
+  }
 }
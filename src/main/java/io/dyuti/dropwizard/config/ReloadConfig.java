@@ -0,0 +1,20 @@
+package io.dyuti.dropwizard.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for reloading the health check definitions at runtime. The file has the layout of
+ * the bundle configuration, but only its health check lists are used.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReloadConfig {
+  private boolean enabled;
+  //Required when enabled. Replaces the health checks of the application configuration if present
+  private String file;
+  //Reload whenever the file changes, otherwise only through the admin task
+  private boolean watch = true;
+}
@@ -0,0 +1,47 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for running a health check in the background. Results are served from the last
+ * execution as long as it is not older than the staleness bound. When a maximum interval is set
+ * the interval adapts: it grows by the backoff factor after every healthy execution that follows a
+ * healthy one, and drops back to the minimum interval after an unhealthy execution and after the
+ * first healthy execution following one. Consecutive unhealthy executions keep the minimum.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScheduleConfig {
+  //Fixed interval, or the minimum interval when adaptive
+  @Min(1000)
+  private int interval = 30000;
+  @Min(0)
+  private int jitter = 1000;
+  //Maximum age of a served result. Defaults to 3 times the (maximum) interval when not set
+  @Min(0)
+  private int maxStaleness;
+  //Upper bound of the adaptive interval. The interval is fixed when not above interval
+  @Min(0)
+  private int maxInterval;
+  @DecimalMin("1.0")
+  private double backoff = 2.0;
+
+  public ScheduleConfig(int interval, int jitter, int maxStaleness) {
+    this.interval = interval;
+    this.jitter = jitter;
+    this.maxStaleness = maxStaleness;
+  }
+
+  public boolean isAdaptive() {
+    return maxInterval > interval;
+  }
+
+  public long resolveMaxStaleness() {
+    return maxStaleness > 0 ? maxStaleness : 3L * Math.max(interval, maxInterval);
+  }
+}
@@ -0,0 +1,24 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for the background scheduler. When enabled every health check without an explicit
+ * schedule is run with the default schedule.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SchedulerConfig {
+  private boolean enabled;
+  @Min(1)
+  private int threads = 2;
+  @Valid
+  @NotNull
+  private ScheduleConfig defaults = new ScheduleConfig();
+}
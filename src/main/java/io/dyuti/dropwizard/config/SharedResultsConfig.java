@@ -0,0 +1,31 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for sharing the results of the network health checks between the processes of a
+ * host through a memory mapped file. All processes sharing the file must use the same slot count.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SharedResultsConfig {
+  private boolean enabled;
+  @NotEmpty
+  private String file = "/dev/shm/healthcheck-extras.results";
+  //One slot per distinct health check definition on the host
+  @Min(64)
+  @Max(1_000_000)
+  private int slots = 4096;
+  //Age up to which a published result is served, for health checks that are not scheduled
+  @Min(100)
+  private long maxAge = 5000;
+  //Time a process may take to evaluate a health check before another process takes over
+  @Min(100)
+  private long lease = 10000;
+}
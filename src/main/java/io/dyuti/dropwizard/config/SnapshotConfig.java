@@ -0,0 +1,21 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for the admin servlet that serves the pre-encoded snapshot of the health check
+ * states. The aggregate status alone is served under {@code <path>/status}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SnapshotConfig {
+  private boolean enabled;
+  @NotEmpty
+  @Pattern(regexp = "/.*[^/]")
+  private String path = "/health-snapshot";
+}
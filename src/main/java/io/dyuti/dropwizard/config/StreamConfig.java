@@ -0,0 +1,30 @@
+package io.dyuti.dropwizard.config;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Configuration for the admin servlet that streams health check state changes as server-sent
+ * events.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StreamConfig {
+  private boolean enabled;
+  @NotEmpty
+  @Pattern(regexp = "/.*[^/]")
+  private String path = "/health-stream";
+  @Min(1000)
+  private long heartbeatInterval = 15000;
+  //State changes kept for subscribers that resume with Last-Event-ID
+  @Min(1)
+  private int replaySize = 1024;
+  //Subscribers with more unsent events are disconnected and can resume
+  @Min(1)
+  private int maxPending = 256;
+}
@@ -1,5 +1,9 @@
 package io.dyuti.dropwizard.config;
 
+import java.util.Collections;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -15,10 +19,14 @@ public class TcpHealthCheckConfig {
 
   @NotBlank private String name;
   @NotBlank private String host;
-  @NotBlank private int port;
+  @Min(1) @Max(65535) private int port;
 
   @Min(1000)
   private int connectTimeout = 1000;
 
   private HealthCheckMode mode = HealthCheckMode.NORMAL;
+  @Valid
+  private ScheduleConfig schedule;
+  //Skipped while any of these health checks is unhealthy
+  private List<String> dependsOn = Collections.emptyList();
 }
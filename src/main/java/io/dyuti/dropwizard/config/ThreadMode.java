@@ -0,0 +1,6 @@
+package io.dyuti.dropwizard.config;
+
+public enum ThreadMode {
+  PLATFORM,
+  VIRTUAL
+}
@@ -0,0 +1,134 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import static java.util.Objects.isNull;
+
+import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreaker;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.CertificateHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.HostResolver.Host;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import io.dyuti.dropwizard.probe.TrustAllSslContexts;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Health Check for TLS certificate expiry. Only a TLS handshake is performed to fetch the
+ * certificate chain, which is cached and evaluated locally. The endpoint is contacted again on the
+ * refresh interval, or more often once a certificate is within the warning horizon. The host is
+ * resolved in the background, so only the handshake counts against the timeout.
+ */
+@Slf4j
+public class CertificateExpiryHealthCheck extends ExtrasHealthCheck {
+
+  private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  private final CertificateHealthCheckConfig config;
+  private final ProbeEngine probeEngine;
+  private final Host host;
+  private final CircuitBreakers circuitBreakers;
+  private final CircuitBreaker circuitBreaker;
+
+  private volatile CertificateChain chain;
+
+  public CertificateExpiryHealthCheck(CertificateHealthCheckConfig config,
+      AlertPublisher alertPublisher, ProbeEngine probeEngine, HostResolver hostResolver,
+      CircuitBreakers circuitBreakers) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.probeEngine = probeEngine;
+    this.host = hostResolver.add(config.getHost());
+    this.circuitBreakers = circuitBreakers;
+    this.circuitBreaker = circuitBreakers.acquire(config.getHost() + ":" + config.getPort());
+  }
+
+  @Override
+  protected Result evaluate() {
+    var now = System.currentTimeMillis();
+    var current = chain;
+    if (isNull(current) || now >= current.refreshAt()) {
+      //Only fetching the chain contacts the target, expiry is not a failure of the target
+      if (!circuitBreaker.allow()) {
+        return circuitBreaker.openResult();
+      }
+      var probe = probeEngine
+          .handshake(host.address(config.getPort()),
+              TrustAllSslContexts.get(config.getTlsVersion()), config.getTimeout())
+          .join();
+      recordPhase(Phase.CONNECT, probe.connectNanos());
+      if (probe.timedOut()) {
+        recordTimeout();
+      }
+      if (!probe.reachable()) {
+        log.error("Error fetching certificate chain for {}", probe.target(), probe.error());
+        chain = null;
+        return circuitBreaker.record(Result.unhealthy(
+            "Unable to fetch certificate chain from %s: %s".formatted(
+                probe.target(), probe.errorMessage())));
+      }
+      circuitBreaker.record(true);
+      if (probe.certificates().isEmpty()) {
+        chain = null;
+        return Result.unhealthy("No certificates presented by " + probe.target());
+      }
+      recordPhase(Phase.TLS, probe.durationNanos() - probe.connectNanos());
+      current = toChain(probe.certificates(), now);
+      chain = current;
+    }
+    return validity(current, now);
+  }
+
+  private Result validity(CertificateChain current, long now) {
+    if (now < current.notBefore()) {
+      return Result.unhealthy("Certificate %s is not valid before %s".formatted(
+          current.notYetValidSubject(), Instant.ofEpochMilli(current.notBefore())));
+    }
+    if (now >= current.notAfter()) {
+      return Result.unhealthy("Certificate %s expired on %s".formatted(
+          current.expiringSubject(), Instant.ofEpochMilli(current.notAfter())));
+    }
+    if (now >= current.warnAfter()) {
+      return Result.unhealthy("Certificate %s expires in %d days on %s".formatted(
+          current.expiringSubject(), (current.notAfter() - now) / DAY_MILLIS,
+          Instant.ofEpochMilli(current.notAfter())));
+    }
+    return Result.healthy();
+  }
+
+  private CertificateChain toChain(List<X509Certificate> certificates, long fetchedAt) {
+    X509Certificate expiring = certificates.get(0);
+    X509Certificate notYetValid = certificates.get(0);
+    for (var certificate : certificates) {
+      if (certificate.getNotAfter().before(expiring.getNotAfter())) {
+        expiring = certificate;
+      }
+      if (certificate.getNotBefore().after(notYetValid.getNotBefore())) {
+        notYetValid = certificate;
+      }
+    }
+    var notAfter = expiring.getNotAfter().getTime();
+    var warnAfter = notAfter - config.getWarningDays() * DAY_MILLIS;
+    var refreshAt = fetchedAt >= warnAfter
+        ? fetchedAt + config.getExpiryRefreshInterval()
+        : Math.min(fetchedAt + config.getRefreshInterval(), warnAfter);
+    return new CertificateChain(expiring.getSubjectX500Principal().getName(), notAfter, warnAfter,
+        notYetValid.getSubjectX500Principal().getName(), notYetValid.getNotBefore().getTime(),
+        refreshAt);
+  }
+
+  @Override
+  public void release() {
+    super.release();
+    circuitBreakers.release(circuitBreaker);
+  }
+
+  private record CertificateChain(String expiringSubject, long notAfter, long warnAfter,
+                                  String notYetValidSubject, long notBefore, long refreshAt) {
+
+  }
+}
@@ -1,154 +1,282 @@
 package io.dyuti.dropwizard.healtcheck;
 
-import static java.util.Objects.isNull;
-
-import com.codahale.metrics.health.HealthCheck;
 import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreaker;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.breaker.CircuitOpenException;
 import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig;
 import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig.HostListSource;
 import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig.HostNameMode;
 import io.dyuti.dropwizard.config.ClusterReachabilityHealthCheckConfig.SelectionMode;
-import io.dyuti.dropwizard.config.HealthCheckMode;
-import java.io.IOException;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import io.dyuti.dropwizard.probe.HostPattern;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import io.dyuti.dropwizard.probe.ProbeResult;
 import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 
-@RequiredArgsConstructor
+/**
+ * Health Check for the reachability of the hosts of a cluster. Configured hosts, or the hosts a
+ * PATTERN expands to, are turned into a host table once with their addresses cached by the
+ * {@link HostResolver}, so an evaluation only connects. The port of every probe is selected
+ * randomly from the port range. SAMPLED mode probes a sample of the hosts on every check from a
+ * {@link SampledRotation} and reports the cluster from the latest probe of every host.
+ */
 @Slf4j
-public class ClusterReachabilityHealthCheck extends HealthCheck {
+public class ClusterReachabilityHealthCheck extends ExtrasHealthCheck {
+
+  private static final int MAX_LISTED_TARGETS = 50;
 
   private final ClusterReachabilityHealthCheckConfig config;
-  private final AlertPublisher alertPublisher;
+  private final ProbeEngine probeEngine;
+  private final CircuitBreakers circuitBreakers;
+  //Breakers of the hosts probed so far, released with the health check
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
   private final Supplier<List<InetSocketAddress>> hostSource;
-  private long lastUpdatedTime;
-  private Result lastUpdatedResult;
+  private final HostResolver.Host[] hosts;
+  private final int startPort;
+  private final int endPort;
+  private final SampledRotation rotation;
+  private volatile SampledRotation dynamicRotation;
 
-  private final Pattern hostPattern = Pattern.compile(
-      "(\\[a-zA-z\\-\\]+)\\[(\\d+)-(\\d+)\\]\\.(\\[a-zA-z\\-\\]+)\\.(\\[a-zA-z\\-\\]+)");
+  public ClusterReachabilityHealthCheck(ClusterReachabilityHealthCheckConfig config,
+      AlertPublisher alertPublisher, ProbeEngine probeEngine, HostResolver hostResolver,
+      CircuitBreakers circuitBreakers) {
+    this(config, alertPublisher, probeEngine, hostResolver, circuitBreakers, null);
+  }
 
   public ClusterReachabilityHealthCheck(ClusterReachabilityHealthCheckConfig config,
-      AlertPublisher alertPublisher) {
-    this(config, alertPublisher, null);
+      AlertPublisher alertPublisher, ProbeEngine probeEngine, HostResolver hostResolver,
+      CircuitBreakers circuitBreakers, Supplier<List<InetSocketAddress>> hostSource) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.probeEngine = probeEngine;
+    this.circuitBreakers = circuitBreakers;
+    this.hostSource = hostSource;
+    var portRange = config.getPortRange().split("-");
+    this.startPort = Integer.parseInt(portRange[0].trim());
+    this.endPort = portRange.length > 1 ? Integer.parseInt(portRange[1].trim()) : startPort;
+    if (config.getHostListSource() == HostListSource.DYNAMIC) {
+      this.hosts = new HostResolver.Host[0];
+    } else {
+      var hostNames = config.getHostNameMode() == HostNameMode.PATTERN
+          ? HostPattern.expand(config.getHostNamePattern()) : config.getHosts();
+      this.hosts = hostNames.stream().map(hostResolver::add).toArray(HostResolver.Host[]::new);
+    }
+    this.rotation = config.getSelectionMode() == SelectionMode.SAMPLED
+        ? new SampledRotation(hosts.length, Math.max(1, endPort - startPort)) : null;
   }
 
+  //Executed in the background by the bundle scheduler at checkInterval
   @Override
-  protected Result check() {
-    if (lastUpdatedTime == 0) {
-      lastUpdatedTime = System.currentTimeMillis();
+  protected Result evaluate() {
+    if (config.getSelectionMode() == SelectionMode.RANDOM) {
+      var target = randomTarget();
+      return target == null ? Result.healthy("No cluster hosts to check")
+          : toResult(probe(target).join());
+    }
+    if (config.getSelectionMode() == SelectionMode.SAMPLED) {
+      return checkSampled();
     }
-    if (System.currentTimeMillis() - lastUpdatedTime > config.getCheckInterval() || isNull(
-        lastUpdatedResult)) {
-      lastUpdatedTime = System.currentTimeMillis();
-      lastUpdatedResult = checkClusterReachability();
+    var targets = targets();
+    if (config.getSelectionMode() == SelectionMode.PARALLEL) {
+      return checkParallel(targets);
     }
-    return lastUpdatedResult;
+    return firstFailure(targets);
   }
 
-  @SuppressWarnings("java:S3776")
-  private Result checkClusterReachability() {
-    var portRange = config.getPortRange().split("-");
-    int startPort = Integer.parseInt(portRange[0]);
-    int endPort = Integer.parseInt(portRange[1]);
-    if(config.getHostListSource() == HostListSource.DYNAMIC) {
-      if(config.getHostNameMode() == HostNameMode.LIST && config.getSelectionMode() == SelectionMode.RANDOM) {
-        return checkHostListRandom(hostSource.get());
-      }
-      if(config.getHostNameMode() == HostNameMode.LIST && config.getSelectionMode() == SelectionMode.SEQUENTIAL) {
-        return checkHostListSequential(hostSource.get());
-      }
-    } else {
-      if(config.getHostNameMode() == HostNameMode.LIST && config.getSelectionMode() == SelectionMode.RANDOM) {
-        return checkHostListRandom(startPort, endPort);
-      }
-      if(config.getHostNameMode() == HostNameMode.LIST && config.getSelectionMode() == SelectionMode.SEQUENTIAL) {
-        return checkHostListSequential(startPort, endPort);
-      }
-      if(config.getHostNameMode() == HostNameMode.PATTERN) {
-        var hostMatcher = hostPattern.matcher(config.getHostNamePattern());
-        int startHost = Integer.parseInt(hostMatcher.group(2));
-        int endHost = Integer.parseInt(hostMatcher.group(3));
-        if(config.getSelectionMode() == SelectionMode.RANDOM) {
-          return checkHostPatternRandom(hostMatcher, startHost, endHost, startPort, endPort);
-        } else if (config.getSelectionMode() == SelectionMode.SEQUENTIAL) {
-          return checkHostPatternSequential(hostMatcher, startHost, endHost, startPort, endPort);
+  private InetSocketAddress randomTarget() {
+    var random = ThreadLocalRandom.current();
+    if (config.getHostListSource() == HostListSource.DYNAMIC) {
+      var sourceHostList = hostSource.get();
+      return sourceHostList.isEmpty() ? null
+          : sourceHostList.get(random.nextInt(sourceHostList.size()));
+    }
+    return hosts.length == 0 ? null : hosts[random.nextInt(hosts.length)].address(port());
+  }
+
+  private List<InetSocketAddress> targets() {
+    if (config.getHostListSource() == HostListSource.DYNAMIC) {
+      return hostSource.get();
+    }
+    var targets = new ArrayList<InetSocketAddress>(hosts.length);
+    for (var host : hosts) {
+      targets.add(host.address(port()));
+    }
+    return targets;
+  }
+
+  //The end of the port range is exclusive unless it is the only port
+  private int port() {
+    return endPort > startPort ? ThreadLocalRandom.current().nextInt(startPort, endPort)
+        : startPort;
+  }
+
+  private Result checkParallel(List<InetSocketAddress> targets) {
+    if (targets.isEmpty()) {
+      return Result.healthy("No cluster hosts to check");
+    }
+    var results = probeAll(targets);
+    results.forEach(this::record);
+    var unreachable = results.stream()
+        .filter(probe -> !probe.reachable())
+        .map(ProbeResult::target)
+        .toList();
+    if (unreachable.isEmpty()) {
+      return Result.healthy();
+    }
+    int reachable = results.size() - unreachable.size();
+    double reachablePercent = 100.0 * reachable / results.size();
+    var message = "%d of %d cluster hosts reachable (%.1f%%). Unreachable: %s".formatted(
+        reachable, results.size(), reachablePercent, summarize(unreachable));
+    var builder = Result.builder()
+        .withMessage(message)
+        .withDetail("reachable", reachable)
+        .withDetail("total", results.size())
+        .withDetail("unreachable", unreachable);
+    if (reachablePercent >= config.getQuorum()) {
+      log.warn("Cluster healthcheck {}: {}", config.getName(), message);
+      return builder.healthy().build();
+    }
+    log.error("Cluster healthcheck {}: {}", config.getName(), message);
+    return builder.unhealthy().build();
+  }
+
+  private Result checkSampled() {
+    var sourceHostList = config.getHostListSource() == HostListSource.DYNAMIC
+        ? hostSource.get() : null;
+    var current = sourceHostList == null ? rotation : dynamicRotation(sourceHostList.size());
+    if (current.targets() == 0) {
+      return Result.healthy("No cluster hosts to check");
+    }
+    var sample = current.next(config.getSampleSize());
+    var targets = new ArrayList<InetSocketAddress>(sample.length);
+    for (var target : sample) {
+      targets.add(sourceHostList == null
+          ? hosts[target].address(startPort + current.port(target)) : sourceHostList.get(target));
+    }
+    var results = probeAll(targets);
+    for (int i = 0; i < sample.length; i++) {
+      record(results.get(i));
+      current.record(sample[i], results.get(i).reachable());
+    }
+    int probed = current.probedCount();
+    int reachable = current.reachableCount();
+    if (reachable == probed) {
+      return Result.healthy();
+    }
+    var unreachable = new ArrayList<String>();
+    for (var target : current.unreachable(MAX_LISTED_TARGETS)) {
+      unreachable.add(sourceHostList == null ? hosts[target].name()
+          : sourceHostList.get(target).getHostString());
+    }
+    double reachablePercent = 100.0 * reachable / probed;
+    var message = "%d of %d probed cluster hosts reachable (%.1f%%), %d of %d hosts probed. "
+        .formatted(reachable, probed, reachablePercent, probed, current.targets())
+        + "Unreachable: " + String.join(", ", unreachable)
+        + (probed - reachable > unreachable.size()
+        ? " and %d more".formatted(probed - reachable - unreachable.size()) : "");
+    var builder = Result.builder()
+        .withMessage(message)
+        .withDetail("reachable", reachable)
+        .withDetail("probed", probed)
+        .withDetail("total", current.targets())
+        .withDetail("unreachable", unreachable);
+    if (reachablePercent >= config.getQuorum()) {
+      log.warn("Cluster healthcheck {}: {}", config.getName(), message);
+      return builder.healthy().build();
+    }
+    log.error("Cluster healthcheck {}: {}", config.getName(), message);
+    return builder.unhealthy().build();
+  }
+
+  //Dynamic host lists are addressed by position, the rotation starts over when the size changes
+  private SampledRotation dynamicRotation(int size) {
+    var current = dynamicRotation;
+    if (current == null || current.targets() != size) {
+      synchronized (this) {
+        current = dynamicRotation;
+        if (current == null || current.targets() != size) {
+          current = new SampledRotation(size, 1);
+          dynamicRotation = current;
         }
       }
     }
-    return Result.healthy();
+    return current;
   }
 
-  private Result checkHostListSequential(int startPort, int endPort) {
-    for (var host : config.getHosts()) {
-      int selectedPort = ThreadLocalRandom.current().nextInt(startPort, endPort);
-      var result = executeHealthCheck(host, selectedPort);
-      if (!result.isHealthy()) {
-        return result;
-      }
+  private static String summarize(List<String> targets) {
+    if (targets.size() <= MAX_LISTED_TARGETS) {
+      return String.join(", ", targets);
     }
-    return Result.healthy();
+    return String.join(", ", targets.subList(0, MAX_LISTED_TARGETS))
+        + " and %d more".formatted(targets.size() - MAX_LISTED_TARGETS);
   }
 
-  private Result checkHostListSequential(List<InetSocketAddress> hosts) {
-    for (var host : hosts) {
-      var result = executeHealthCheck(host.getAddress().getHostAddress(), host.getPort());
-      if (!result.isHealthy()) {
-        return result;
-      }
+  private CompletableFuture<ProbeResult> probe(InetSocketAddress address) {
+    if (!circuitBreaker(address).allow()) {
+      return CompletableFuture.completedFuture(circuitOpen(address));
     }
-    return Result.healthy();
+    log.debug("Cluster healthcheck {}:{}", address.getHostString(), address.getPort());
+    return probeEngine.connect(address, config.getConnectTimeout());
   }
 
-  private Result checkHostListRandom(int startPort, int endPort) {
-    var host = config.getHosts().get(ThreadLocalRandom.current().nextInt(config.getHosts().size()));
-    int selectedPort = ThreadLocalRandom.current().nextInt(startPort, endPort);
-    var result = executeHealthCheck(host, selectedPort);
-    if (!result.isHealthy()) {
-      return result;
+  //Hosts with an open circuit are reported unreachable without being probed
+  private List<ProbeResult> probeAll(List<InetSocketAddress> targets) {
+    var open = new boolean[targets.size()];
+    var allowed = new ArrayList<InetSocketAddress>(targets.size());
+    for (int i = 0; i < open.length; i++) {
+      open[i] = !circuitBreaker(targets.get(i)).allow();
+      if (!open[i]) {
+        allowed.add(targets.get(i));
+      }
     }
-    return Result.healthy();
+    var probed = probeEngine.connectAll(allowed, config.getConnectTimeout(),
+        config.getMaxConcurrency(), config.getDeadline()).join();
+    if (allowed.size() == open.length) {
+      return probed;
+    }
+    var results = new ArrayList<ProbeResult>(open.length);
+    int next = 0;
+    for (int i = 0; i < open.length; i++) {
+      results.add(open[i] ? circuitOpen(targets.get(i)) : probed.get(next++));
+    }
+    return results;
+  }
+
+  private static ProbeResult circuitOpen(InetSocketAddress address) {
+    return ProbeResult.unreachable(address, 0, -1,
+        new CircuitOpenException(address.getHostString()));
   }
 
-  private Result checkHostListRandom(List<InetSocketAddress> sourceHostList) {
-    var host = sourceHostList.get(ThreadLocalRandom.current().nextInt(sourceHostList.size()));
-    var result = executeHealthCheck(host.getAddress().getHostAddress(), host.getPort());
-    if (!result.isHealthy()) {
-      return result;
+  //Cluster hosts are probed on random ports, so the circuit is kept per host
+  private CircuitBreaker circuitBreaker(InetSocketAddress address) {
+    return breakers.computeIfAbsent(address.getHostString(), circuitBreakers::acquire);
+  }
+
+  private void record(ProbeResult probe) {
+    if (probe.error() instanceof CircuitOpenException) {
+      return;
+    }
+    circuitBreaker(probe.address()).record(probe.reachable());
+    recordPhase(Phase.CONNECT, probe.connectNanos());
+    if (probe.timedOut()) {
+      recordTimeout();
     }
-    return Result.healthy();
   }
 
-  private Result checkHostPatternRandom(Matcher hostMatcher, int startHost, int endHost,
-      int startPort, int endPort) {
-    int selectedPort = ThreadLocalRandom.current().nextInt(startPort, endPort);
-    String selectedHost = StringUtils.leftPad(
-        String.valueOf(ThreadLocalRandom.current().nextInt(startHost, endHost)),
-        hostMatcher.group(2).length() - String.valueOf(startHost).length(), '0');
-    var host =
-        hostMatcher.group(1) + selectedHost + "." + hostMatcher.group(4) + "."
-            + hostMatcher.group(
-            5);
-    return executeHealthCheck(host, selectedPort);
-  }
-
-  private Result checkHostPatternSequential(Matcher hostMatcher, int startHost, int endHost,
-      int startPort, int endPort) {
-    for (int i = startHost; i <= endHost; i++) {
-      int selectedPort = ThreadLocalRandom.current().nextInt(startPort, endPort);
-      var selectedHost = StringUtils.leftPad(
-          String.valueOf(i), hostMatcher.group(2).length() - String.valueOf(startHost).length(),
-          '0');
-      var host =
-          hostMatcher.group(1) + selectedHost + "." + hostMatcher.group(4) + "."
-              + hostMatcher.group(5);
-      var result = executeHealthCheck(host, selectedPort);
+  //Hosts are probed one at a time and hosts after the first unreachable one are not probed
+  private Result firstFailure(List<InetSocketAddress> targets) {
+    for (var target : targets) {
+      var result = toResult(probe(target).join());
       if (!result.isHealthy()) {
         return result;
       }
@@ -156,33 +284,22 @@ public class ClusterReachabilityHealthCheck extends HealthCheck {
     return Result.healthy();
   }
 
-  private Result executeHealthCheck(String host, int selectedPort) {
-    log.info("Cluster healthcheck {}:{}", host, selectedPort);
-    try (var socket = new Socket()) {
-      socket.connect(new InetSocketAddress(host, selectedPort), config.getConnectTimeout());
-      if (socket.isConnected()) {
-        return Result.healthy();
-      }
-      alert(host, selectedPort);
-      if (config.getMode() == HealthCheckMode.ALERT) {
-        return Result.healthy();
-      }
-      return Result.unhealthy(
-          "Cluster host %s is not reachable on port range: %s".formatted(host, selectedPort));
-    } catch (IOException e) {
-      log.error("Error executing cluster reachability healthcheck for {}:{}", host, selectedPort, e);
-      alert(host, selectedPort);
-      if (config.getMode() == HealthCheckMode.ALERT) {
-        return Result.healthy();
-      }
-      return Result.unhealthy(e);
+  private Result toResult(ProbeResult probe) {
+    record(probe);
+    if (probe.reachable()) {
+      return Result.healthy();
     }
+    log.error("Error executing cluster reachability healthcheck for {}", probe.target(),
+        probe.error());
+    return Result.unhealthy(
+        "Cluster host %s is not reachable on port range: %s".formatted(
+            probe.address().getHostString(), probe.address().getPort()));
   }
 
-  private void alert(String host, int port) {
-    alertPublisher.publish(
-        config.getName(),
-        Result.unhealthy(
-            "Cluster host %s is not reachable on port range: %s".formatted(host, port)));
+  @Override
+  public void release() {
+    super.release();
+    breakers.values().forEach(circuitBreakers::release);
+    breakers.clear();
   }
 }
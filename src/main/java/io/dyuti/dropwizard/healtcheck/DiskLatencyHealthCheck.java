@@ -0,0 +1,129 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.SlidingWindowReservoir;
+import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.config.DiskLatencyHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Health Check for the write latency of a disk. Every evaluation overwrites the first block of a
+ * probe file from a preallocated direct buffer and times forcing it to the device. The latencies
+ * are kept in a histogram, and the health check fails once the configured percentile of the recent
+ * latencies is above the threshold. The probe file is kept open and never grows, and it is deleted
+ * once the health check is released.
+ */
+@Slf4j
+public class DiskLatencyHealthCheck extends ExtrasHealthCheck {
+
+  private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final DiskLatencyHealthCheckConfig config;
+  private final Path file;
+  private final long thresholdNanos;
+  private final ByteBuffer block;
+  private final Histogram latencies;
+  private FileChannel channel;
+
+  public DiskLatencyHealthCheck(DiskLatencyHealthCheckConfig config,
+      AlertPublisher alertPublisher) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    //The name must not escape the directory or name a file elsewhere in it
+    this.file = Path.of(config.getPath(), ".healthcheck-extras-"
+        + config.getName().replaceAll("[^A-Za-z0-9._-]", "_") + ".probe");
+    this.thresholdNanos = Math.round(config.getThreshold() * NANOS_PER_MILLI);
+    this.block = ByteBuffer.allocateDirect(config.getBlockSize());
+    while (block.hasRemaining()) {
+      block.put((byte) 0x5A);
+    }
+    this.latencies = new Histogram(new SlidingWindowReservoir(config.getSamples()));
+  }
+
+  @Override
+  protected synchronized Result evaluate() {
+    long last;
+    try {
+      if (channel == null) {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      }
+      last = 0;
+      for (int i = 0; i < config.getWrites(); i++) {
+        last = write();
+        latencies.update(last);
+        recordPhase(Phase.FSYNC, last);
+      }
+    } catch (IOException e) {
+      log.error("Error executing disk latency healthcheck for {}", config.getPath(), e);
+      close();
+      return Result.unhealthy("Unable to write probe file %s: %s: %s", file,
+          e.getClass().getSimpleName(), e.getMessage());
+    }
+    var snapshot = latencies.getSnapshot();
+    var percentile = snapshot.getValue(config.getPercentile() / 100);
+    var builder = percentile > thresholdNanos
+        ? Result.builder().unhealthy().withMessage(
+            "Disk %s sync latency p%s is %s ms, above threshold of %s ms", config.getPath(),
+            plain(config.getPercentile()), plain(millis(percentile)),
+            plain(config.getThreshold()))
+        : Result.builder().healthy();
+    return builder
+        .withDetail("p" + plain(config.getPercentile()) + "Ms", millis(percentile))
+        .withDetail("maxMs", millis(snapshot.getMax()))
+        .withDetail("lastMs", millis(last))
+        .withDetail("samples", snapshot.size())
+        .build();
+  }
+
+  //Overwrites the first block in place and returns the nanos it took to force it to the device
+  private long write() throws IOException {
+    block.clear();
+    var position = 0L;
+    while (block.hasRemaining()) {
+      position += channel.write(block, position);
+    }
+    var startedAt = System.nanoTime();
+    channel.force(true);
+    return System.nanoTime() - startedAt;
+  }
+
+  //Rounded to microseconds
+  private static double millis(double nanos) {
+    return Math.round(nanos / 1000) / 1000.0;
+  }
+
+  private static String plain(double value) {
+    return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+  }
+
+  private void close() {
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      log.warn("Unable to close probe file {}", file, e);
+    }
+    channel = null;
+  }
+
+  @Override
+  public synchronized void release() {
+    super.release();
+    close();
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Unable to delete probe file {}", file, e);
+    }
+  }
+}
@@ -1,48 +1,126 @@
 package io.dyuti.dropwizard.healtcheck;
 
-import com.codahale.metrics.health.HealthCheck;
 import io.dyuti.dropwizard.alert.AlertPublisher;
 import io.dyuti.dropwizard.config.DiskSpaceHealthCheckConfig;
-import io.dyuti.dropwizard.config.HealthCheckMode;
-import java.io.File;
-import lombok.RequiredArgsConstructor;
+import io.dyuti.dropwizard.metric.SampleWindow;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 
-/** Health Check for Disk Space */
-@RequiredArgsConstructor
+/**
+ * Health Check for Disk Space. The usable space of the file store of every path is compared to
+ * the absolute and percentage thresholds, and its recent samples are fitted to project the time
+ * until the store is full. Samples are kept at least the sample interval apart, so the fitted span
+ * does not shrink to seconds when the health check is evaluated on every request.
+ */
 @Slf4j
-public class DiskSpaceHealthCheck extends HealthCheck {
+public class DiskSpaceHealthCheck extends ExtrasHealthCheck {
 
   private final DiskSpaceHealthCheckConfig config;
-  private final AlertPublisher alertPublisher;
+  private final List<Mount> mounts = new ArrayList<>();
+  private final long sampleIntervalNanos;
+
+  public DiskSpaceHealthCheck(DiskSpaceHealthCheckConfig config, AlertPublisher alertPublisher) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.sampleIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getSampleInterval());
+    if (config.getPath() != null && !config.getPath().isBlank()) {
+      mounts.add(new Mount(config.getPath(), config.getSamples()));
+    }
+    config.getPaths().forEach(path -> mounts.add(new Mount(path, config.getSamples())));
+  }
 
   @Override
-  protected Result check() {
-    try {
-      File diskPartition = new File(config.getPath());
-      long freeSpace = diskPartition.getFreeSpace() / 1024;
-      if (freeSpace < config.getThreshold()) {
-        alert(freeSpace);
-        if (config.getMode() == HealthCheckMode.ALERT) {
-          return Result.healthy();
-        } else {
-          return Result.unhealthy("Disk Space is below threshold. Free Space: " + freeSpace);
-        }
-      }
-    } catch (Exception e) {
-      log.error("Error executing disk space availability healthcheck for {}", config.getPath(), e);
-      alert(0);
-      if (config.getMode() == HealthCheckMode.ALERT) {
-        return Result.healthy();
-      }
-      return Result.unhealthy(e);
+  protected Result evaluate() {
+    var failures = new ArrayList<String>();
+    var details = new LinkedHashMap<String, Object>();
+    for (var mount : mounts) {
+      try {
+        mount.evaluate(failures, details);
+      } catch (IOException e) {
+        log.error("Error executing disk space availability healthcheck for {}", mount.path, e);
+        failures.add("Unable to read disk space of %s: %s".formatted(mount.path, e.getMessage()));
+      }
     }
-    return Result.healthy();
+    var builder = failures.isEmpty() ? Result.builder().healthy()
+        : Result.builder().unhealthy().withMessage(String.join("; ", failures));
+    details.forEach(builder::withDetail);
+    return builder.build();
   }
 
-  private void alert(long freeSpace) {
-    alertPublisher.publish(
-        config.getName(),
-        Result.unhealthy("Disk Space is below threshold. Free Space: " + freeSpace));
+  /**
+   * Path of the health check with its file store, which is resolved once, and its samples.
+   */
+  private final class Mount {
+
+    private final String path;
+    private final SampleWindow window;
+    private FileStore store;
+    private long sampledAt;
+
+    private Mount(String path, int samples) {
+      this.path = path;
+      this.window = new SampleWindow(samples, 1);
+    }
+
+    private synchronized void evaluate(List<String> failures, Map<String, Object> details)
+        throws IOException {
+      if (store == null) {
+        store = Files.getFileStore(Path.of(path));
+      }
+      long usable;
+      long total;
+      try {
+        usable = store.getUsableSpace();
+        total = store.getTotalSpace();
+      } catch (IOException e) {
+        //Resolved again in case the path was mounted elsewhere
+        store = null;
+        throw e;
+      }
+      var now = System.nanoTime();
+      if (window.size() == 0 || now - sampledAt >= sampleIntervalNanos) {
+        window.add(usable, now);
+        sampledAt = now;
+      }
+      var usableKb = usable / 1024;
+      var usablePercent = total > 0 ? 100.0 * usable / total : 0;
+      if (usableKb < config.getThreshold()) {
+        failures.add("Disk Space of %s is below threshold. Usable Space: %d KB"
+            .formatted(path, usableKb));
+      }
+      if (usablePercent < config.getMinUsablePercent()) {
+        failures.add("Disk Space of %s is below %.1f%%. Usable Space: %.1f%%"
+            .formatted(path, config.getMinUsablePercent(), usablePercent));
+      }
+      var timeToFull = timeToFullMillis(usable);
+      if (config.getHorizon() > 0 && timeToFull >= 0 && timeToFull < config.getHorizon()) {
+        failures.add("Disk %s is projected to be full in %d s".formatted(path, timeToFull / 1000));
+      }
+      var mount = new LinkedHashMap<String, Object>();
+      mount.put("usableKb", usableKb);
+      mount.put("totalKb", total / 1024);
+      mount.put("usablePercent", Math.round(usablePercent * 10) / 10.0);
+      if (timeToFull >= 0) {
+        mount.put("timeToFullSeconds", timeToFull / 1000);
+      }
+      details.put(path, mount);
+    }
+
+    //-1 while the usable space is not shrinking or there are too few samples to fit
+    private long timeToFullMillis(long usable) {
+      if (window.size() < 3) {
+        return -1;
+      }
+      var slope = window.slopePerSecond();
+      return slope < 0 ? (long) (usable / -slope * 1000) : -1;
+    }
   }
 }
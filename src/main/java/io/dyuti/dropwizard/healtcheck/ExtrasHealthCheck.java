@@ -0,0 +1,172 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck;
+import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.config.HealthCheckMode;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import io.dyuti.dropwizard.shared.SharedResult;
+import io.dyuti.dropwizard.shared.SharedSlot;
+import io.dyuti.dropwizard.state.HealthStates;
+import java.util.List;
+
+/**
+ * Base class for the health checks of the bundle. Subclasses return the actual result of an
+ * evaluation, which is reported to the alert publisher before the health check mode is applied, so
+ * the publisher sees healthy evaluations as well as unhealthy ones. Once instrumented, every
+ * evaluation is also recorded in the {@link HealthCheckMetrics} of the health check, and once
+ * tracked the reported results update the {@link HealthStates} of the bundle. While a health check
+ * it depends on is failing, a health check is skipped without being evaluated or alerted on. Once
+ * shared, a fresh result published by another process of the host is used instead of evaluating.
+ */
+public abstract class ExtrasHealthCheck extends HealthCheck {
+
+  private final String name;
+  private final HealthCheckMode mode;
+  private final AlertPublisher alertPublisher;
+  private HealthCheckMetrics metrics;
+  private HealthStates states;
+  private HealthCheckGraph graph;
+  private List<String> dependsOn = List.of();
+  private SharedSlot shared;
+  //Latest result before the mode is applied
+  private volatile Result latest;
+
+  protected ExtrasHealthCheck(String name, HealthCheckMode mode, AlertPublisher alertPublisher) {
+    this.name = name;
+    this.mode = mode;
+    this.alertPublisher = alertPublisher;
+  }
+
+  protected abstract Result evaluate() throws Exception;
+
+  @Override
+  protected final Result check() throws Exception {
+    var upstream = graph == null ? null : graph.unhealthyUpstream(dependsOn);
+    Result result;
+    if (upstream != null) {
+      result = skipped(upstream);
+    } else {
+      result = shared == null ? evaluateTimed() : evaluateShared();
+      alertPublisher.onResult(name, result);
+    }
+    latest = result;
+    if (!result.isHealthy() && mode == HealthCheckMode.ALERT) {
+      result = Result.healthy();
+    }
+    if (states != null) {
+      states.update(name, result);
+    }
+    return result;
+  }
+
+  private Result evaluateTimed() {
+    var startedAt = metrics == null ? 0 : System.nanoTime();
+    Result result;
+    try {
+      result = evaluate();
+    } catch (Exception e) {
+      result = Result.unhealthy(e);
+    }
+    if (metrics != null) {
+      metrics.evaluated(result.isHealthy(), System.nanoTime() - startedAt);
+    }
+    return result;
+  }
+
+  //Only the process holding the lease evaluates, the others serve its result
+  private Result evaluateShared() {
+    var now = System.currentTimeMillis();
+    var published = shared.read();
+    if (published != null && shared.isFresh(published, now)) {
+      return fromShared(published);
+    }
+    var lease = shared.tryLease(now);
+    if (lease == 0) {
+      return published != null && shared.isRecent(published, now)
+          ? fromShared(published) : evaluateTimed();
+    }
+    var result = evaluateTimed();
+    shared.publish(lease, result.isHealthy(), result.getMessage());
+    return result;
+  }
+
+  private Result fromShared(SharedResult published) {
+    if (metrics != null) {
+      metrics.shared();
+    }
+    var builder = published.healthy() ? Result.builder().healthy() : Result.builder().unhealthy();
+    if (published.message() != null) {
+      builder.withMessage(published.message());
+    }
+    return builder
+        .withDetail("shared", true)
+        .withDetail("completedAt", published.completedAt())
+        .build();
+  }
+
+  private Result skipped(String upstream) {
+    if (metrics != null) {
+      metrics.skipped();
+    }
+    return Result.builder()
+        .unhealthy()
+        .withMessage("Skipped: upstream %s unhealthy", upstream)
+        .withDetail("skipped", true)
+        .withDetail("upstream", upstream)
+        .build();
+  }
+
+  //Must be called before the health check is registered or scheduled
+  public void dependOn(HealthCheckGraph healthCheckGraph, List<String> upstream) {
+    this.graph = healthCheckGraph;
+    this.dependsOn = List.copyOf(upstream);
+  }
+
+  //Must be called before the health check is registered or scheduled
+  public void share(SharedSlot slot) {
+    this.shared = slot;
+  }
+
+  boolean isFailing() {
+    var result = latest;
+    return result != null && !result.isHealthy();
+  }
+
+  //Must be called before the health check is registered or scheduled
+  public void instrument(MetricRegistry metricRegistry) {
+    this.metrics = new HealthCheckMetrics(name, metricRegistry);
+  }
+
+  //Must be called before the health check is registered or scheduled
+  public void track(HealthStates healthStates) {
+    this.states = healthStates;
+    healthStates.register(name);
+  }
+
+  //Called once the health check is unregistered
+  public void release() {
+    if (metrics != null) {
+      metrics.remove();
+    }
+    if (shared != null) {
+      shared.release();
+    }
+  }
+
+  protected void recordPhase(Phase phase, long nanos) {
+    if (metrics != null && nanos >= 0) {
+      metrics.phase(phase, nanos);
+    }
+  }
+
+  protected void recordTimeout() {
+    if (metrics != null) {
+      metrics.timedOut();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+}
@@ -0,0 +1,75 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dependencies between the health checks of the bundle. A health check whose upstream health check
+ * is unhealthy is skipped, and since a skipped health check is unhealthy itself, everything
+ * downstream of a failure is skipped as well. The dependencies must form a DAG, which is verified
+ * before any health check is registered.
+ */
+public class HealthCheckGraph {
+
+  private final Map<String, ExtrasHealthCheck> healthChecks = new ConcurrentHashMap<>();
+
+  public void add(ExtrasHealthCheck healthCheck) {
+    healthChecks.put(healthCheck.getName(), healthCheck);
+  }
+
+  public void remove(String name) {
+    healthChecks.remove(name);
+  }
+
+  //First upstream health check whose latest evaluation was unhealthy, null if there is none
+  String unhealthyUpstream(List<String> dependsOn) {
+    for (var name : dependsOn) {
+      var upstream = healthChecks.get(name);
+      if (upstream != null && upstream.isFailing()) {
+        return name;
+      }
+    }
+    return null;
+  }
+
+  //Throws when a health check depends on an unknown health check or on itself through others
+  public static void verify(Map<String, List<String>> dependencies) {
+    var indegree = new HashMap<String, Integer>();
+    dependencies.forEach((name, dependsOn) -> {
+      indegree.putIfAbsent(name, 0);
+      for (var upstream : dependsOn) {
+        if (!dependencies.containsKey(upstream)) {
+          throw new IllegalArgumentException(
+              "Health check %s depends on unknown health check %s".formatted(name, upstream));
+        }
+        indegree.merge(name, 1, Integer::sum);
+      }
+    });
+    var downstream = new HashMap<String, List<String>>();
+    dependencies.forEach((name, dependsOn) -> dependsOn.forEach(upstream ->
+        downstream.computeIfAbsent(upstream, k -> new ArrayList<>()).add(name)));
+    var ready = new ArrayDeque<String>();
+    indegree.forEach((name, degree) -> {
+      if (degree == 0) {
+        ready.add(name);
+      }
+    });
+    while (!ready.isEmpty()) {
+      var name = ready.poll();
+      indegree.remove(name);
+      for (var dependent : downstream.getOrDefault(name, List.of())) {
+        if (indegree.merge(dependent, -1, Integer::sum) == 0) {
+          ready.add(dependent);
+        }
+      }
+    }
+    if (!indegree.isEmpty()) {
+      throw new IllegalArgumentException(
+          "Health checks %s form a dependency cycle".formatted(indegree.keySet()));
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Execution metrics of a health check, registered as {@code <name>.healthcheck.*}. The duration of
+ * every evaluation is timed, unhealthy evaluations are counted as errors and timeouts separately,
+ * and gauges report the time of the last healthy evaluation and the current run of failures.
+ * Evaluations skipped because of an unhealthy upstream health check are counted separately, as are
+ * results served from another process of the host.
+ * Network checks additionally time the connect, TLS handshake and first byte phases, disk latency
+ * checks the syncs of their writes.
+ */
+public class HealthCheckMetrics {
+
+  public enum Phase {
+    CONNECT("connect"),
+    TLS("tls"),
+    FIRST_BYTE("firstByte"),
+    FSYNC("fsync");
+
+    private final String metric;
+
+    Phase(String metric) {
+      this.metric = metric;
+    }
+  }
+
+  private final String prefix;
+  private final MetricRegistry metricRegistry;
+  private final Timer duration;
+  private final Counter errors;
+  private final Counter timeouts;
+  private final Counter skipped;
+  private final Counter shared;
+  private final Timer[] phases = new Timer[Phase.values().length];
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile long lastSuccess;
+
+  public HealthCheckMetrics(String name, MetricRegistry metricRegistry) {
+    this.prefix = name + ".healthcheck.";
+    this.metricRegistry = metricRegistry;
+    this.duration = metricRegistry.timer(prefix + "duration");
+    this.errors = metricRegistry.counter(prefix + "errors");
+    this.timeouts = metricRegistry.counter(prefix + "timeouts");
+    this.skipped = metricRegistry.counter(prefix + "skipped");
+    this.shared = metricRegistry.counter(prefix + "shared");
+    metricRegistry.gauge(prefix + "lastSuccess", () -> (Gauge<Long>) () -> lastSuccess);
+    metricRegistry.gauge(prefix + "consecutiveFailures",
+        () -> (Gauge<Integer>) consecutiveFailures::get);
+  }
+
+  //Timers and counters are kept for a health check that is registered again under the same name
+  void remove() {
+    metricRegistry.remove(prefix + "lastSuccess");
+    metricRegistry.remove(prefix + "consecutiveFailures");
+  }
+
+  void evaluated(boolean healthy, long durationNanos) {
+    duration.update(durationNanos, TimeUnit.NANOSECONDS);
+    if (healthy) {
+      lastSuccess = System.currentTimeMillis();
+      consecutiveFailures.set(0);
+    } else {
+      errors.inc();
+      consecutiveFailures.incrementAndGet();
+    }
+  }
+
+  //Skipped evaluations are neither timed nor counted as errors
+  void skipped() {
+    skipped.inc();
+  }
+
+  //Results published by another process are neither timed nor counted as errors
+  void shared() {
+    shared.inc();
+  }
+
+  void timedOut() {
+    timeouts.inc();
+  }
+
+  //Phase timers are only registered for the phases a health check goes through
+  void phase(Phase phase, long nanos) {
+    var timer = phases[phase.ordinal()];
+    if (timer == null) {
+      timer = metricRegistry.timer(prefix + phase.metric);
+      phases[phase.ordinal()] = timer;
+    }
+    timer.update(nanos, TimeUnit.NANOSECONDS);
+  }
+}
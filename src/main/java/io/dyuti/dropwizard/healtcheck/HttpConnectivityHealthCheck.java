@@ -1,54 +1,79 @@
 package io.dyuti.dropwizard.healtcheck;
 
-import com.codahale.metrics.health.HealthCheck;
 import io.dyuti.dropwizard.alert.AlertPublisher;
-import io.dyuti.dropwizard.config.HealthCheckMode;
+import io.dyuti.dropwizard.breaker.CircuitBreaker;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
 import io.dyuti.dropwizard.config.HttpHealthCheckConfig;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import io.dyuti.dropwizard.http.HttpClientEngine;
+import java.net.http.HttpRequest;
+import java.net.http.HttpTimeoutException;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * HTTP Health Check that performs basic CONNECT to check is the application can each the URL
- * endpoint specified in the configuration
+ * HTTP Health Check that performs a GET through the shared HTTP client engine to check is the
+ * application can each the URL endpoint specified in the configuration
  */
-@RequiredArgsConstructor
 @Slf4j
-public class HttpConnectivityHealthCheck extends HealthCheck {
+public class HttpConnectivityHealthCheck extends ExtrasHealthCheck {
 
   private final HttpHealthCheckConfig config;
-  private final AlertPublisher alertPublisher;
+  private final HttpClientEngine httpClientEngine;
 
-  private URL url;
+  private final CircuitBreakers circuitBreakers;
+  private final CircuitBreaker circuitBreaker;
+
+  private HttpRequest request;
+
+  public HttpConnectivityHealthCheck(HttpHealthCheckConfig config, AlertPublisher alertPublisher,
+      HttpClientEngine httpClientEngine, CircuitBreakers circuitBreakers) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.httpClientEngine = httpClientEngine;
+    this.circuitBreakers = circuitBreakers;
+    this.circuitBreaker = circuitBreakers.acquire(HttpClientEngine.target(config));
+  }
 
   @Override
-  protected Result check() {
-    HttpURLConnection connection = null;
+  protected Result evaluate() {
+    if (!circuitBreaker.allow()) {
+      return circuitBreaker.openResult();
+    }
+    return circuitBreaker.record(send());
+  }
+
+  private Result send() {
     try {
-      if (Objects.isNull(url)) {
-        url = new URI(config.getUrl()).toURL();
+      if (Objects.isNull(request)) {
+        request = httpClientEngine.request(config);
       }
-      connection = (HttpURLConnection) url.openConnection();
-      connection.setConnectTimeout(config.getConnectTimeout());
-      connection.setReadTimeout(config.getReadTimeout());
-      connection.setRequestMethod("GET");
-      connection.connect();
+      httpClientEngine
+          .send(config, request, nanos -> recordPhase(Phase.FIRST_BYTE, nanos))
+          .get(config.getConnectTimeout() + (long) config.getReadTimeout(), TimeUnit.MILLISECONDS);
       return Result.healthy();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return unhealthy(e);
     } catch (Exception e) {
-      log.error("Error executing HTTP connectivity healthcheck for {}", config.getUrl(), e);
-      alertPublisher.publish(config.getName(), Result.unhealthy(e));
-      if (config.getMode() == HealthCheckMode.ALERT) {
-        return Result.healthy();
-      }
-      return Result.unhealthy(e);
-    } finally {
-      if (Objects.nonNull(connection)) {
-        connection.disconnect();
-      }
+      return unhealthy(e instanceof ExecutionException ? e.getCause() : e);
+    }
+  }
+
+  private Result unhealthy(Throwable e) {
+    if (e instanceof TimeoutException || e instanceof HttpTimeoutException) {
+      recordTimeout();
     }
+    log.error("Error executing HTTP connectivity healthcheck for {}", config.getUrl(), e);
+    return Result.unhealthy(e);
+  }
+
+  @Override
+  public void release() {
+    super.release();
+    circuitBreakers.release(circuitBreaker);
   }
 }
@@ -1,90 +1,117 @@
 package io.dyuti.dropwizard.healtcheck;
 
-import static java.util.Objects.nonNull;
-
-import com.codahale.metrics.health.HealthCheck;
 import io.dyuti.dropwizard.alert.AlertPublisher;
-import io.dyuti.dropwizard.config.HealthCheckMode;
+import io.dyuti.dropwizard.breaker.CircuitBreaker;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
 import io.dyuti.dropwizard.config.HttpHealthCheckConfig;
-import java.net.URI;
-import java.net.URL;
-import java.security.SecureRandom;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import io.dyuti.dropwizard.http.HttpClientEngine;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.Objects;
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * HTTPS Health Check that performs basic CONNECT to check is the application can each the URL
- * endpoint specified in the configuration. Can also perform additional certificate validation if
- * required.
+ * HTTPS Health Check that performs a GET through the shared HTTP client engine to check is the
+ * application can each the URL endpoint specified in the configuration. Can also perform additional
+ * certificate validation if required. Only transport failures count against the circuit breaker of
+ * the target, which is shared with the other health checks of the host and port.
  */
-@RequiredArgsConstructor
 @Slf4j
-public class HttpsConnectivityHealthCheck extends HealthCheck {
+public class HttpsConnectivityHealthCheck extends ExtrasHealthCheck {
 
   private final HttpHealthCheckConfig config;
-  private final AlertPublisher alertPublisher;
-
-  private final TrustManager[] trustAllCerts = new TrustManager[]{
-      new X509TrustManager() {
-        public X509Certificate[] getAcceptedIssuers() {
-          return new X509Certificate[0];
-        }
+  private final HttpClientEngine httpClientEngine;
 
-        public void checkClientTrusted(X509Certificate[] certs, String authType) {
-          log.info("Client trusted: {}", authType);
-        }
+  private final CircuitBreakers circuitBreakers;
+  private final CircuitBreaker circuitBreaker;
 
-        public void checkServerTrusted(X509Certificate[] certs, String authType) {
-          log.info("Server trusted: {}", authType);
-        }
-      }
-  };
+  private HttpRequest request;
 
-  private URL url;
+  public HttpsConnectivityHealthCheck(HttpHealthCheckConfig config, AlertPublisher alertPublisher,
+      HttpClientEngine httpClientEngine, CircuitBreakers circuitBreakers) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.httpClientEngine = httpClientEngine;
+    this.circuitBreakers = circuitBreakers;
+    this.circuitBreaker = circuitBreakers.acquire(HttpClientEngine.target(config));
+  }
 
   @Override
-  protected Result check() {
-    HttpsURLConnection connection = null;
+  protected Result evaluate() {
+    if (!circuitBreaker.allow()) {
+      return circuitBreaker.openResult();
+    }
+    Throwable failure;
     try {
-      if (Objects.isNull(url)) {
-        url = new URI(config.getUrl()).toURL();
-      }
-      connection = (HttpsURLConnection) url.openConnection();
-      connection.setConnectTimeout(config.getConnectTimeout());
-      connection.setReadTimeout(config.getReadTimeout());
-      if (nonNull(config.getTlsVersion())) {
-        var sslContext = SSLContext.getInstance(config.getTlsVersion());
-        sslContext.init(null, trustAllCerts, new SecureRandom());
-        connection.setSSLSocketFactory(sslContext.getSocketFactory());
-      }
-      connection.setRequestMethod("GET");
-      connection.connect();
-      if (config.isVerify()) {
-        Certificate[] certs = connection.getServerCertificates();
-        for (Certificate cert : certs) {
-          ((X509Certificate) cert).checkValidity();
-        }
-        Result.healthy();
-      }
+      verify(send());
+      circuitBreaker.record(true);
       return Result.healthy();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure = e;
+    } catch (ExecutionException e) {
+      failure = e.getCause();
     } catch (Exception e) {
-      log.error("Error executing HTTPS connectivity healthcheck for {}", config.getUrl(), e);
-      alertPublisher.publish(config.getName(), Result.unhealthy(e));
-      if (config.getMode() == HealthCheckMode.ALERT) {
-        return Result.healthy();
-      }
-      return Result.unhealthy(e);
-    } finally {
-      if (nonNull(connection)) {
-        connection.disconnect();
+      failure = e;
+    }
+    var result = unhealthy(failure);
+    //The target answered, a certificate failing verification is not a failure of the target
+    if (isCertificateFailure(failure)) {
+      circuitBreaker.record(true);
+      return result;
+    }
+    return circuitBreaker.record(result);
+  }
+
+  private HttpResponse<Void> send() throws Exception {
+    if (Objects.isNull(request)) {
+      request = httpClientEngine.request(config);
+    }
+    return httpClientEngine
+        .send(config, request, nanos -> recordPhase(Phase.FIRST_BYTE, nanos))
+        .get(config.getConnectTimeout() + (long) config.getReadTimeout(), TimeUnit.MILLISECONDS);
+  }
+
+  private void verify(HttpResponse<Void> response) throws Exception {
+    if (!config.isVerify()) {
+      return;
+    }
+    var session = response.sslSession()
+        .orElseThrow(() -> new IllegalStateException("No TLS session for " + config.getUrl()));
+    for (Certificate cert : session.getPeerCertificates()) {
+      ((X509Certificate) cert).checkValidity();
+    }
+  }
+
+  //Untrusted, expired or mismatching certificates, whether found in the handshake or afterwards
+  private static boolean isCertificateFailure(Throwable failure) {
+    for (var cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof CertificateException) {
+        return true;
       }
     }
+    return false;
+  }
+
+  private Result unhealthy(Throwable e) {
+    if (e instanceof TimeoutException || e instanceof HttpTimeoutException) {
+      recordTimeout();
+    }
+    log.error("Error executing HTTPS connectivity healthcheck for {}", config.getUrl(), e);
+    return Result.unhealthy(e);
+  }
+
+  @Override
+  public void release() {
+    super.release();
+    circuitBreakers.release(circuitBreaker);
   }
 }
@@ -1,182 +1,201 @@
 package io.dyuti.dropwizard.healtcheck;
 
-import com.codahale.metrics.health.HealthCheck;
+import static java.util.Objects.isNull;
+
+import com.codahale.metrics.MetricRegistry;
 import io.dropwizard.setup.Environment;
 import io.dyuti.dropwizard.alert.AlertPublisher;
-import io.dyuti.dropwizard.config.HealthCheckMode;
+import io.dyuti.dropwizard.config.MetricAggregation;
+import io.dyuti.dropwizard.config.MetricEvaluation;
 import io.dyuti.dropwizard.config.MetricHealthCheckConfig;
-import lombok.RequiredArgsConstructor;
+import io.dyuti.dropwizard.config.MetricMatch;
+import io.dyuti.dropwizard.config.MetricType;
+import io.dyuti.dropwizard.config.ThresholdComparison;
+import io.dyuti.dropwizard.metric.MetricExtractor;
+import io.dyuti.dropwizard.metric.MetricExtractors;
+import io.dyuti.dropwizard.metric.MetricHandle;
+import io.dyuti.dropwizard.metric.MetricIndex;
+import io.dyuti.dropwizard.metric.MetricSelection;
+import io.dyuti.dropwizard.metric.SampleWindow;
+
+/**
+ * Health Check for Log Rate. The metric is resolved once and tracked through a registry listener
+ * and the dimension is compiled into an extractor, so an evaluation only reads the metric. GLOB and
+ * REGEX selectors evaluate every matching metric from the live {@link MetricIndex} in one pass.
+ * Trend evaluations sample the value into a fixed size {@link SampleWindow} on every check. The
+ * listener of the metric and the selection are released with the health check.
+ */
+public class MetricHealthCheck extends ExtrasHealthCheck {
 
-/** Health Check for Log Rate */
-@RequiredArgsConstructor
-public class MetricHealthCheck extends HealthCheck {
+  private static final int MAX_LISTED_METRICS = 10;
 
-  private final Environment environment;
   private final MetricHealthCheckConfig config;
-  private final AlertPublisher alertPublisher;
+  private final MetricRegistry metricRegistry;
+  private final MetricIndex metricIndex;
+  private final MetricHandle handle;
+  private final MetricSelection selection;
+  private final MetricExtractor extractor;
+  private final String messagePrefix;
+  private final SampleWindow window;
+  private final long breachMask;
+  //Bit i is set when the i-th most recent evaluation breached the threshold
+  private long breachHistory;
 
-  @Override
-  protected Result check() {
-    return switch (config.getType()) {
-      case METER -> checkMeter();
-      case TIMER -> checkTimer();
-      case HISTOGRAM -> checkHistogram();
-      case COUNTER -> checkCounter();
-      case GAUGE -> checkGauge();
-    };
+  public MetricHealthCheck(Environment environment, MetricHealthCheckConfig config,
+      AlertPublisher alertPublisher) {
+    this(environment, config, alertPublisher, new MetricIndex(environment.metrics()));
   }
 
-  private Result checkMeter() {
-    if (environment.metrics().getMeters().containsKey(config.getMetric())) {
-      var meter = environment.metrics().getMeters().get(config.getMetric());
-      var value =
-          switch (config.getDimension()) {
-            case "m5_rate" -> meter.getFiveMinuteRate();
-            case "m15_rate" -> meter.getFifteenMinuteRate();
-            case "mean_rate" -> meter.getMeanRate();
-            case "count" -> meter.getCount();
-            default -> meter.getOneMinuteRate();
-          };
-      if (value > config.getThreshold()) {
-        var result =
-            Result.unhealthy(
-                "Meter "
-                    + config.getMetric()
-                    + "["
-                    + config.getDimension()
-                    + "]"
-                    + "  exceeded threshold: "
-                    + value);
-        alertPublisher.publish(config.getName(), result);
-        if (config.getMode() == HealthCheckMode.ALERT) {
-          return Result.healthy();
-        }
-        return result;
-      }
+  public MetricHealthCheck(Environment environment, MetricHealthCheckConfig config,
+      AlertPublisher alertPublisher, MetricIndex metricIndex) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.metricRegistry = environment.metrics();
+    this.metricIndex = metricIndex;
+    this.extractor = MetricExtractors.compile(config.getType(), config.getDimension());
+    this.window = config.getEvaluation() == MetricEvaluation.VALUE ? null
+        : new SampleWindow(config.getWindow(), config.getEwmaAlpha());
+    this.breachMask = config.getBreachWindow() == Long.SIZE ? -1L
+        : (1L << config.getBreachWindow()) - 1;
+    if (config.getMatch() == MetricMatch.EXACT) {
+      this.handle = new MetricHandle(config.getMetric(), config.getType())
+          .attach(metricRegistry);
+      this.selection = null;
+      this.messagePrefix = label(config.getType()) + " " + config.getMetric() + "["
+          + config.getDimension() + "]" + describe(config);
+    } else {
+      this.handle = null;
+      this.selection = metricIndex.select(config.getType(), config.getMatch(), config.getMetric());
+      this.messagePrefix = label(config.getType()) + " " + config.getMetric() + "["
+          + config.getDimension() + "] (" + config.getAggregation() + ")" + describe(config);
     }
-    return Result.healthy();
   }
 
-  private Result checkTimer() {
-    if (environment.metrics().getTimers().containsKey(config.getMetric())) {
-      var timer = environment.metrics().getTimers().get(config.getMetric());
-      var value =
-          switch (config.getDimension()) {
-            case "max" -> timer.getSnapshot().getMax();
-            case "min" -> timer.getSnapshot().getMin();
-            case "mean" -> timer.getSnapshot().getMean();
-            case "stddev" -> timer.getSnapshot().getStdDev();
-            case "p75" -> timer.getSnapshot().get75thPercentile();
-            case "p95" -> timer.getSnapshot().get95thPercentile();
-            case "p98" -> timer.getSnapshot().get98thPercentile();
-            case "p99" -> timer.getSnapshot().get99thPercentile();
-            case "p999" -> timer.getSnapshot().get999thPercentile();
-            case "median" -> timer.getSnapshot().getMedian();
-            default -> -1;
-          };
-      if (value > 0 && value > config.getThreshold()) {
-        var result =
-            Result.unhealthy(
-                "Timer "
-                    + config.getMetric()
-                    + "["
-                    + config.getDimension()
-                    + "]"
-                    + "  exceeded threshold: "
-                    + value);
-        alertPublisher.publish(config.getName(), result);
-        if (config.getMode() == HealthCheckMode.ALERT) {
-          return Result.healthy();
-        }
-        return result;
-      }
+  @Override
+  protected Result evaluate() {
+    var value = isNull(selection) ? metricValue() : selectionValue();
+    if (Double.isNaN(value)) {
+      return Result.healthy();
+    }
+    double signal;
+    boolean failed;
+    synchronized (this) {
+      signal = signal(value);
+      var breached = !Double.isNaN(signal) && (config.getComparison() == ThresholdComparison.ABOVE
+          ? signal > config.getThreshold() : signal < config.getThreshold());
+      breachHistory = (breachHistory << 1) | (breached ? 1 : 0);
+      failed = breached && Long.bitCount(breachHistory & breachMask) >= config.getBreaches();
+    }
+    if (!failed) {
+      return Result.healthy();
+    }
+    if (isNull(selection) || config.getAggregation() != MetricAggregation.ANY
+        || config.getEvaluation() != MetricEvaluation.VALUE) {
+      return Result.unhealthy(messagePrefix + format(signal));
     }
-    return Result.healthy();
+    return Result.unhealthy(messagePrefix + breaches(selection.members()));
   }
 
-  private Result checkHistogram() {
-    if (environment.metrics().getHistograms().containsKey(config.getMetric())) {
-      var histogram = environment.metrics().getHistograms().get(config.getMetric());
-      var value =
-          switch (config.getDimension()) {
-            case "max" -> histogram.getSnapshot().getMax();
-            case "min" -> histogram.getSnapshot().getMin();
-            case "mean" -> histogram.getSnapshot().getMean();
-            case "stddev" -> histogram.getSnapshot().getStdDev();
-            case "p75" -> histogram.getSnapshot().get75thPercentile();
-            case "p95" -> histogram.getSnapshot().get95thPercentile();
-            case "p98" -> histogram.getSnapshot().get98thPercentile();
-            case "p99" -> histogram.getSnapshot().get99thPercentile();
-            case "p999" -> histogram.getSnapshot().get999thPercentile();
-            case "median" -> histogram.getSnapshot().getMedian();
-            default -> -1;
-          };
-      if (value > 0 && value > config.getThreshold()) {
-        var result =
-            Result.unhealthy(
-                "Histogram "
-                    + config.getMetric()
-                    + "["
-                    + config.getDimension()
-                    + "]"
-                    + "  exceeded threshold: "
-                    + value);
-        alertPublisher.publish(config.getName(), result);
-        if (config.getMode() == HealthCheckMode.ALERT) {
-          return Result.healthy();
-        }
-        return result;
-      }
+  @Override
+  public void release() {
+    super.release();
+    if (isNull(selection)) {
+      handle.detach(metricRegistry);
+    } else {
+      metricIndex.release(selection);
     }
-    return Result.healthy();
   }
 
-  private Result checkCounter() {
-    if (environment.metrics().getCounters().containsKey(config.getMetric())) {
-      var counter = environment.metrics().getCounters().get(config.getMetric());
-      if (counter.getCount() > config.getThreshold()) {
-        var result =
-            Result.unhealthy(
-                "Counter "
-                    + config.getMetric()
-                    + "["
-                    + config.getDimension()
-                    + "]"
-                    + "  exceeded threshold: "
-                    + counter.getCount());
-        alertPublisher.publish(config.getName(), result);
-        if (config.getMode() == HealthCheckMode.ALERT) {
-          return Result.healthy();
-        }
-        return result;
+  private double signal(double value) {
+    if (isNull(window)) {
+      return value;
+    }
+    window.add(value, System.nanoTime());
+    return switch (config.getEvaluation()) {
+      case RATE -> window.ratePerSecond();
+      case EWMA -> window.ewma();
+      case SLOPE -> window.slopePerSecond();
+      case VALUE -> value;
+    };
+  }
+
+  private double metricValue() {
+    var metric = handle.get();
+    return isNull(metric) ? MetricExtractor.NOT_AVAILABLE : extractor.extract(metric);
+  }
+
+  //ANY is evaluated on the value closest to breaching the threshold
+  private double selectionValue() {
+    double sum = 0;
+    double max = Double.NEGATIVE_INFINITY;
+    double min = Double.POSITIVE_INFINITY;
+    int count = 0;
+    for (var member : selection.members()) {
+      var value = extractor.extract(member.metric());
+      if (Double.isNaN(value)) {
+        continue;
       }
+      sum += value;
+      max = Math.max(max, value);
+      min = Math.min(min, value);
+      count++;
     }
-    return Result.healthy();
+    if (count == 0) {
+      return MetricExtractor.NOT_AVAILABLE;
+    }
+    return switch (config.getAggregation()) {
+      case SUM -> sum;
+      case MAX -> max;
+      case ANY -> config.getComparison() == ThresholdComparison.ABOVE ? max : min;
+    };
   }
 
-  private Result checkGauge() {
-    if (environment.metrics().getGauges().containsKey(config.getMetric())) {
-      var gauge = environment.metrics().getGauges().get(config.getMetric());
-      if (gauge.getValue() instanceof Number number) {
-        var value = number.longValue();
-        if (value > config.getThreshold()) {
-          var result =
-              Result.unhealthy(
-                  "Gauge "
-                      + config.getMetric()
-                      + "["
-                      + config.getDimension()
-                      + "]"
-                      + "  exceeded threshold: "
-                      + value);
-          alertPublisher.publish(config.getName(), result);
-          if (config.getMode() == HealthCheckMode.ALERT) {
-            return Result.healthy();
-          }
-          return result;
+  //Only called on the unhealthy path, values are read again to list the breaching metrics
+  private String breaches(MetricSelection.Member[] members) {
+    var message = new StringBuilder();
+    int listed = 0;
+    int total = 0;
+    for (var member : members) {
+      var value = extractor.extract(member.metric());
+      var breached = config.getComparison() == ThresholdComparison.ABOVE
+          ? value > config.getThreshold() : value < config.getThreshold();
+      if (breached) {
+        if (listed < MAX_LISTED_METRICS) {
+          message.append(listed == 0 ? "" : ", ").append(member.name()).append('=')
+              .append(format(value));
+          listed++;
         }
+        total++;
       }
     }
-    return Result.healthy();
+    if (total > listed) {
+      message.append(" and ").append(total - listed).append(" more");
+    }
+    return message.toString();
+  }
+
+  //Counter values and whole gauge values are reported as whole numbers
+  private String format(double value) {
+    return config.getEvaluation() == MetricEvaluation.VALUE
+        && (config.getType() == MetricType.COUNTER
+        || config.getType() == MetricType.GAUGE && value == Math.rint(value))
+        ? String.valueOf((long) value) : String.valueOf(value);
+  }
+
+  private static String describe(MetricHealthCheckConfig config) {
+    var evaluation = config.getEvaluation() == MetricEvaluation.VALUE ? ""
+        : " " + config.getEvaluation();
+    return evaluation + (config.getComparison() == ThresholdComparison.ABOVE
+        ? "  exceeded threshold: " : "  dropped below threshold: ");
+  }
+
+  private static String label(MetricType type) {
+    return switch (type) {
+      case METER -> "Meter";
+      case TIMER -> "Timer";
+      case HISTOGRAM -> "Histogram";
+      case COUNTER -> "Counter";
+      case GAUGE -> "Gauge";
+    };
   }
 }
@@ -0,0 +1,163 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Rotation over the targets of a cluster for sampled probing. Every round visits all targets
+ * exactly once in a freshly shuffled order, so no target goes unprobed for more than
+ * 2 * ceil(targets / sample) cycles. Each target walks its own permutation of the port range one
+ * port per round, so every target and port pair is covered within ports * ceil(targets / sample)
+ * + 1 cycles. The outcome of the latest probe of each target is kept in bitmaps that form the
+ * rolling view of the cluster.
+ */
+final class SampledRotation {
+
+  private final int targets;
+  private final int ports;
+  private final int portStride;
+  private final int[] order;
+  private final int[] portOffsets;
+  private final int[] portCursors;
+  private final long[] probed;
+  private final long[] reachable;
+  private int position;
+  private int probedCount;
+  private int reachableCount;
+
+  SampledRotation(int targets, int ports) {
+    var random = ThreadLocalRandom.current();
+    this.targets = targets;
+    this.ports = Math.max(1, ports);
+    this.portStride = coprimeStride(this.ports);
+    this.order = new int[targets];
+    this.portOffsets = new int[targets];
+    this.portCursors = new int[targets];
+    for (int i = 0; i < targets; i++) {
+      order[i] = i;
+      portOffsets[i] = random.nextInt(this.ports);
+    }
+    this.probed = new long[(targets + 63) >>> 6];
+    this.reachable = new long[probed.length];
+    shuffle();
+  }
+
+  int targets() {
+    return targets;
+  }
+
+  //Next targets to probe, a target is never returned twice in one cycle
+  synchronized int[] next(int sample) {
+    var next = new int[Math.min(sample, targets)];
+    int taken = 0;
+    while (taken < next.length) {
+      if (position == targets) {
+        position = 0;
+        shuffle();
+        deferTaken(next, taken);
+      }
+      next[taken++] = order[position++];
+    }
+    return next;
+  }
+
+  synchronized int port(int target) {
+    var cursor = portCursors[target];
+    portCursors[target] = cursor + 1 == ports ? 0 : cursor + 1;
+    return (int) ((portOffsets[target] + (long) cursor * portStride) % ports);
+  }
+
+  synchronized void record(int target, boolean isReachable) {
+    var word = target >>> 6;
+    var bit = 1L << target;
+    if ((probed[word] & bit) == 0) {
+      probed[word] |= bit;
+      probedCount++;
+    } else if ((reachable[word] & bit) != 0) {
+      reachableCount--;
+    }
+    if (isReachable) {
+      reachable[word] |= bit;
+      reachableCount++;
+    } else {
+      reachable[word] &= ~bit;
+    }
+  }
+
+  synchronized int probedCount() {
+    return probedCount;
+  }
+
+  synchronized int reachableCount() {
+    return reachableCount;
+  }
+
+  //Targets whose latest probe failed, at most limit of them
+  synchronized int[] unreachable(int limit) {
+    var unreachable = new int[Math.min(limit, probedCount - reachableCount)];
+    int found = 0;
+    for (int word = 0; word < probed.length && found < unreachable.length; word++) {
+      var bits = probed[word] & ~reachable[word];
+      while (bits != 0 && found < unreachable.length) {
+        unreachable[found++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
+      }
+    }
+    return unreachable;
+  }
+
+  //Targets taken at the end of the previous round are moved behind the rest of this cycle
+  private void deferTaken(int[] next, int taken) {
+    var needed = next.length - taken;
+    var candidate = needed;
+    for (int i = 0; i < needed; i++) {
+      if (contains(next, taken, order[i])) {
+        while (contains(next, taken, order[candidate])) {
+          candidate++;
+        }
+        var target = order[i];
+        order[i] = order[candidate];
+        order[candidate++] = target;
+      }
+    }
+  }
+
+  private static boolean contains(int[] values, int length, int value) {
+    for (int i = 0; i < length; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void shuffle() {
+    var random = ThreadLocalRandom.current();
+    for (int i = targets - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      var target = order[i];
+      order[i] = order[j];
+      order[j] = target;
+    }
+  }
+
+  private static int coprimeStride(int ports) {
+    if (ports <= 2) {
+      return 1;
+    }
+    var random = ThreadLocalRandom.current();
+    int stride;
+    do {
+      stride = 1 + random.nextInt(ports - 1);
+    } while (gcd(stride, ports) != 1);
+    return stride;
+  }
+
+  private static int gcd(int a, int b) {
+    while (b != 0) {
+      var remainder = a % b;
+      a = b;
+      b = remainder;
+    }
+    return a;
+  }
+}
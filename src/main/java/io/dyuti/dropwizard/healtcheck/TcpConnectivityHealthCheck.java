@@ -0,0 +1,67 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import io.dyuti.dropwizard.alert.AlertPublisher;
+import io.dyuti.dropwizard.breaker.CircuitBreaker;
+import io.dyuti.dropwizard.breaker.CircuitBreakers;
+import io.dyuti.dropwizard.config.TcpHealthCheckConfig;
+import io.dyuti.dropwizard.healtcheck.HealthCheckMetrics.Phase;
+import io.dyuti.dropwizard.probe.HostResolver;
+import io.dyuti.dropwizard.probe.HostResolver.Host;
+import io.dyuti.dropwizard.probe.ProbeEngine;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * TCP Health Check that performs a non-blocking CONNECT through the shared probe engine to check if
+ * the application can reach the host and port specified in the configuration. The host is resolved
+ * in the background, so only the connect counts against the timeout.
+ */
+@Slf4j
+public class TcpConnectivityHealthCheck extends ExtrasHealthCheck {
+
+  private final TcpHealthCheckConfig config;
+  private final ProbeEngine probeEngine;
+  private final Host host;
+  private final CircuitBreakers circuitBreakers;
+  private final CircuitBreaker circuitBreaker;
+
+  public TcpConnectivityHealthCheck(TcpHealthCheckConfig config, AlertPublisher alertPublisher,
+      ProbeEngine probeEngine, HostResolver hostResolver, CircuitBreakers circuitBreakers) {
+    super(config.getName(), config.getMode(), alertPublisher);
+    this.config = config;
+    this.probeEngine = probeEngine;
+    this.host = hostResolver.add(config.getHost());
+    this.circuitBreakers = circuitBreakers;
+    this.circuitBreaker = circuitBreakers.acquire(config.getHost() + ":" + config.getPort());
+  }
+
+  @Override
+  protected Result evaluate() {
+    if (!circuitBreaker.allow()) {
+      return circuitBreaker.openResult();
+    }
+    return circuitBreaker.record(connect());
+  }
+
+  private Result connect() {
+    var probe = probeEngine
+        .connect(host.address(config.getPort()), config.getConnectTimeout())
+        .join();
+    recordPhase(Phase.CONNECT, probe.connectNanos());
+    if (probe.timedOut()) {
+      recordTimeout();
+    }
+    if (probe.reachable()) {
+      return Result.healthy();
+    }
+    log.error("Error executing TCP connectivity healthcheck for {}", probe.target(),
+        probe.error());
+    return Result.unhealthy(
+        "Host %s is not reachable: %s".formatted(probe.target(), probe.errorMessage()));
+  }
+
+  @Override
+  public void release() {
+    super.release();
+    circuitBreakers.release(circuitBreaker);
+  }
+}
@@ -0,0 +1,95 @@
+package io.dyuti.dropwizard.http;
+
+import static java.util.Objects.nonNull;
+
+import io.dropwizard.lifecycle.Managed;
+import io.dyuti.dropwizard.config.HttpHealthCheckConfig;
+import io.dyuti.dropwizard.probe.TrustAllSslContexts;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared HTTP client engine for HTTP(s) connectivity health checks. Health checks with the same
+ * connect timeout and TLS version share one pooled {@link HttpClient}, so connections to the same
+ * host are kept alive, HTTP/2 is negotiated where available and TLS sessions are resumed instead of
+ * performing a full handshake on every check.
+ */
+@Slf4j
+public class HttpClientEngine implements Managed {
+
+  private final Executor executor;
+  private final Map<ClientKey, HttpClient> clients = new ConcurrentHashMap<>();
+
+  public HttpClientEngine(Executor executor) {
+    this.executor = executor;
+  }
+
+  public HttpRequest request(HttpHealthCheckConfig config) {
+    var uri = URI.create(config.getUrl());
+    var builder = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofMillis(config.getReadTimeout()))
+        .GET();
+    if (!"https".equalsIgnoreCase(uri.getScheme())) {
+      //Avoid h2c upgrade requests on plain HTTP
+      builder.version(Version.HTTP_1_1);
+    }
+    return builder.build();
+  }
+
+  //Circuit breaker key of the endpoint, shared with TCP checks of the same host and port
+  public static String target(HttpHealthCheckConfig config) {
+    var uri = URI.create(config.getUrl());
+    var port = uri.getPort() != -1 ? uri.getPort()
+        : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    return uri.getHost() + ":" + port;
+  }
+
+  //The first byte callback receives the time until the response headers arrived
+  public CompletableFuture<HttpResponse<Void>> send(HttpHealthCheckConfig config,
+      HttpRequest request, LongConsumer firstByte) {
+    var startedAt = System.nanoTime();
+    return client(config).sendAsync(request, responseInfo -> {
+      firstByte.accept(System.nanoTime() - startedAt);
+      return BodySubscribers.discarding();
+    });
+  }
+
+  @Override
+  public void stop() {
+    clients.clear();
+  }
+
+  private HttpClient client(HttpHealthCheckConfig config) {
+    var tlsVersion = config.getUrl().startsWith("https") ? config.getTlsVersion() : null;
+    return clients.computeIfAbsent(new ClientKey(config.getConnectTimeout(), tlsVersion),
+        this::createClient);
+  }
+
+  private HttpClient createClient(ClientKey key) {
+    log.info("Creating HTTP client for connect timeout {} ms and TLS version {}",
+        key.connectTimeout(), key.tlsVersion());
+    var builder = HttpClient.newBuilder()
+        .version(Version.HTTP_2)
+        .connectTimeout(Duration.ofMillis(key.connectTimeout()))
+        .executor(executor);
+    if (nonNull(key.tlsVersion())) {
+      builder.sslContext(TrustAllSslContexts.get(key.tlsVersion()));
+    }
+    return builder.build();
+  }
+
+  private record ClientKey(int connectTimeout, String tlsVersion) {
+
+  }
+}
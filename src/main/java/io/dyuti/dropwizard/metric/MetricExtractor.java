@@ -0,0 +1,16 @@
+package io.dyuti.dropwizard.metric;
+
+import com.codahale.metrics.Metric;
+
+/**
+ * Extracts the configured dimension of a metric as a primitive value. Implementations are compiled
+ * once per health check, see {@link MetricExtractors}.
+ */
+@FunctionalInterface
+public interface MetricExtractor {
+
+  //Returned when the dimension is not available for the metric
+  double NOT_AVAILABLE = Double.NaN;
+
+  double extract(Metric metric);
+}
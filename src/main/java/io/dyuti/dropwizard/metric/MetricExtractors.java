@@ -0,0 +1,70 @@
+package io.dyuti.dropwizard.metric;
+
+import com.codahale.metrics.Counting;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metered;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Sampling;
+import com.codahale.metrics.Snapshot;
+import io.dyuti.dropwizard.config.MetricType;
+import java.util.function.ToDoubleFunction;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiles metric type and dimension configuration into a {@link MetricExtractor}. Sampling metrics
+ * take exactly one snapshot per extraction.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MetricExtractors {
+
+  public static MetricExtractor compile(MetricType type, String dimension) {
+    return switch (type) {
+      case METER -> meter(dimension);
+      case TIMER, HISTOGRAM -> sampling(dimension);
+      case COUNTER -> metric -> ((Counting) metric).getCount();
+      case GAUGE -> MetricExtractors::gauge;
+    };
+  }
+
+  private static MetricExtractor meter(String dimension) {
+    ToDoubleFunction<Metered> extractor = switch (dimension) {
+      case "m5_rate" -> Metered::getFiveMinuteRate;
+      case "m15_rate" -> Metered::getFifteenMinuteRate;
+      case "mean_rate" -> Metered::getMeanRate;
+      case "count" -> Metered::getCount;
+      default -> Metered::getOneMinuteRate;
+    };
+    return metric -> extractor.applyAsDouble((Metered) metric);
+  }
+
+  private static MetricExtractor sampling(String dimension) {
+    ToDoubleFunction<Snapshot> extractor = switch (dimension) {
+      case "max" -> Snapshot::getMax;
+      case "min" -> Snapshot::getMin;
+      case "mean" -> Snapshot::getMean;
+      case "stddev" -> Snapshot::getStdDev;
+      case "p75" -> Snapshot::get75thPercentile;
+      case "p95" -> Snapshot::get95thPercentile;
+      case "p98" -> Snapshot::get98thPercentile;
+      case "p99" -> Snapshot::get99thPercentile;
+      case "p999" -> Snapshot::get999thPercentile;
+      case "median" -> Snapshot::getMedian;
+      default -> null;
+    };
+    if (extractor == null) {
+      log.warn("Unsupported dimension {} for sampling metric", dimension);
+      return metric -> MetricExtractor.NOT_AVAILABLE;
+    }
+    return metric -> extractor.applyAsDouble(((Sampling) metric).getSnapshot());
+  }
+
+  private static double gauge(Metric metric) {
+    if (((Gauge<?>) metric).getValue() instanceof Number number) {
+      return number.doubleValue();
+    }
+    return MetricExtractor.NOT_AVAILABLE;
+  }
+}
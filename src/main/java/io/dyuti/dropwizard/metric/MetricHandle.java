@@ -0,0 +1,105 @@
+package io.dyuti.dropwizard.metric;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
+import com.codahale.metrics.Timer;
+import io.dyuti.dropwizard.config.MetricType;
+
+/**
+ * Handle to a single named metric of the given type. The handle is kept up to date through a
+ * registry listener, so reading it never touches the registry.
+ */
+public class MetricHandle extends MetricRegistryListener.Base {
+
+  private final String name;
+  private final MetricType type;
+  private volatile Metric metric;
+
+  public MetricHandle(String name, MetricType type) {
+    this.name = name;
+    this.type = type;
+  }
+
+  /** Registers the handle with the registry. Existing metrics are resolved immediately. */
+  public MetricHandle attach(MetricRegistry registry) {
+    registry.addListener(this);
+    return this;
+  }
+
+  public void detach(MetricRegistry registry) {
+    registry.removeListener(this);
+    metric = null;
+  }
+
+  /** Returns the tracked metric or null if it is not registered */
+  public Metric get() {
+    return metric;
+  }
+
+  @Override
+  public void onGaugeAdded(String name, Gauge<?> gauge) {
+    added(name, MetricType.GAUGE, gauge);
+  }
+
+  @Override
+  public void onGaugeRemoved(String name) {
+    removed(name, MetricType.GAUGE);
+  }
+
+  @Override
+  public void onCounterAdded(String name, Counter counter) {
+    added(name, MetricType.COUNTER, counter);
+  }
+
+  @Override
+  public void onCounterRemoved(String name) {
+    removed(name, MetricType.COUNTER);
+  }
+
+  @Override
+  public void onHistogramAdded(String name, Histogram histogram) {
+    added(name, MetricType.HISTOGRAM, histogram);
+  }
+
+  @Override
+  public void onHistogramRemoved(String name) {
+    removed(name, MetricType.HISTOGRAM);
+  }
+
+  @Override
+  public void onMeterAdded(String name, Meter meter) {
+    added(name, MetricType.METER, meter);
+  }
+
+  @Override
+  public void onMeterRemoved(String name) {
+    removed(name, MetricType.METER);
+  }
+
+  @Override
+  public void onTimerAdded(String name, Timer timer) {
+    added(name, MetricType.TIMER, timer);
+  }
+
+  @Override
+  public void onTimerRemoved(String name) {
+    removed(name, MetricType.TIMER);
+  }
+
+  private void added(String addedName, MetricType addedType, Metric added) {
+    if (addedType == type && name.equals(addedName)) {
+      metric = added;
+    }
+  }
+
+  private void removed(String removedName, MetricType removedType) {
+    if (removedType == type && name.equals(removedName)) {
+      metric = null;
+    }
+  }
+}
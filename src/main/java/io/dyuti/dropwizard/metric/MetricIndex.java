@@ -0,0 +1,168 @@
+package io.dyuti.dropwizard.metric;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
+import com.codahale.metrics.Timer;
+import io.dyuti.dropwizard.config.MetricMatch;
+import io.dyuti.dropwizard.config.MetricType;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Incremental index of metric selections over a registry. The registry is scanned once when a
+ * selection is created; afterwards a single registry listener keeps every selection up to date as
+ * metrics are added or removed. The listener is removed once the last selection is released.
+ */
+public class MetricIndex extends MetricRegistryListener.Base {
+
+  private final MetricRegistry registry;
+  private final List<MetricSelection> selections = new CopyOnWriteArrayList<>();
+  private boolean attached;
+
+  public MetricIndex(MetricRegistry registry) {
+    this.registry = registry;
+  }
+
+  public synchronized MetricSelection select(MetricType type, MetricMatch match, String selector) {
+    if (!attached) {
+      registry.addListener(this);
+      attached = true;
+    }
+    var selection = new MetricSelection(type, toPattern(match, selector));
+    registry.getMetrics().forEach((name, metric) -> {
+      if (typeOf(metric) == type) {
+        selection.offer(name, metric);
+      }
+    });
+    selections.add(selection);
+    return selection;
+  }
+
+  public synchronized void release(MetricSelection selection) {
+    selections.remove(selection);
+    if (attached && selections.isEmpty()) {
+      registry.removeListener(this);
+      attached = false;
+    }
+  }
+
+  @Override
+  public void onGaugeAdded(String name, Gauge<?> gauge) {
+    added(name, MetricType.GAUGE, gauge);
+  }
+
+  @Override
+  public void onGaugeRemoved(String name) {
+    removed(name, MetricType.GAUGE);
+  }
+
+  @Override
+  public void onCounterAdded(String name, Counter counter) {
+    added(name, MetricType.COUNTER, counter);
+  }
+
+  @Override
+  public void onCounterRemoved(String name) {
+    removed(name, MetricType.COUNTER);
+  }
+
+  @Override
+  public void onHistogramAdded(String name, Histogram histogram) {
+    added(name, MetricType.HISTOGRAM, histogram);
+  }
+
+  @Override
+  public void onHistogramRemoved(String name) {
+    removed(name, MetricType.HISTOGRAM);
+  }
+
+  @Override
+  public void onMeterAdded(String name, Meter meter) {
+    added(name, MetricType.METER, meter);
+  }
+
+  @Override
+  public void onMeterRemoved(String name) {
+    removed(name, MetricType.METER);
+  }
+
+  @Override
+  public void onTimerAdded(String name, Timer timer) {
+    added(name, MetricType.TIMER, timer);
+  }
+
+  @Override
+  public void onTimerRemoved(String name) {
+    removed(name, MetricType.TIMER);
+  }
+
+  private synchronized void added(String name, MetricType type, Metric metric) {
+    for (var selection : selections) {
+      if (selection.getType() == type) {
+        selection.offer(name, metric);
+      }
+    }
+  }
+
+  private synchronized void removed(String name, MetricType type) {
+    for (var selection : selections) {
+      if (selection.getType() == type) {
+        selection.remove(name);
+      }
+    }
+  }
+
+  static Pattern toPattern(MetricMatch match, String selector) {
+    return switch (match) {
+      case REGEX -> Pattern.compile(selector);
+      case EXACT -> Pattern.compile(Pattern.quote(selector));
+      case GLOB -> Pattern.compile(globToRegex(selector));
+    };
+  }
+
+  private static String globToRegex(String glob) {
+    var regex = new StringBuilder();
+    var literal = new StringBuilder();
+    for (char c : glob.toCharArray()) {
+      if (c == '*' || c == '?') {
+        if (!literal.isEmpty()) {
+          regex.append(Pattern.quote(literal.toString()));
+          literal.setLength(0);
+        }
+        regex.append(c == '*' ? ".*" : ".");
+      } else {
+        literal.append(c);
+      }
+    }
+    if (!literal.isEmpty()) {
+      regex.append(Pattern.quote(literal.toString()));
+    }
+    return regex.toString();
+  }
+
+  //Timer is checked before Meter since both are metered
+  static MetricType typeOf(Metric metric) {
+    if (metric instanceof Timer) {
+      return MetricType.TIMER;
+    }
+    if (metric instanceof Meter) {
+      return MetricType.METER;
+    }
+    if (metric instanceof Histogram) {
+      return MetricType.HISTOGRAM;
+    }
+    if (metric instanceof Counter) {
+      return MetricType.COUNTER;
+    }
+    if (metric instanceof Gauge) {
+      return MetricType.GAUGE;
+    }
+    return null;
+  }
+}
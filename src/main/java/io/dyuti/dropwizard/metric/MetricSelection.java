@@ -0,0 +1,65 @@
+package io.dyuti.dropwizard.metric;
+
+import com.codahale.metrics.Metric;
+import io.dyuti.dropwizard.config.MetricType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import lombok.Getter;
+
+/**
+ * Live set of metrics of one type whose names match a pattern. Maintained incrementally by the
+ * {@link MetricIndex}; readers iterate an immutable array without touching the registry. The
+ * array is rebuilt on the first read after a change, so populating a broad selection stays linear.
+ */
+public class MetricSelection {
+
+  private static final Member[] EMPTY = new Member[0];
+
+  @Getter
+  private final MetricType type;
+  @Getter
+  private final Pattern pattern;
+  //Guarded by this, in registration order
+  private final Map<String, Member> byName = new LinkedHashMap<>();
+  //Null after a change until the next read
+  private volatile Member[] members = EMPTY;
+
+  MetricSelection(MetricType type, Pattern pattern) {
+    this.type = type;
+    this.pattern = pattern;
+  }
+
+  public Member[] members() {
+    var current = members;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (members == null) {
+        members = byName.values().toArray(EMPTY);
+      }
+      return members;
+    }
+  }
+
+  void offer(String name, Metric metric) {
+    if (!pattern.matcher(name).matches()) {
+      return;
+    }
+    synchronized (this) {
+      byName.put(name, new Member(name, metric));
+      members = null;
+    }
+  }
+
+  synchronized void remove(String name) {
+    if (byName.remove(name) != null) {
+      members = null;
+    }
+  }
+
+  public record Member(String name, Metric metric) {
+
+  }
+}
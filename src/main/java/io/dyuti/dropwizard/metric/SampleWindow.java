@@ -0,0 +1,80 @@
+package io.dyuti.dropwizard.metric;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed size ring buffer of metric samples backed by primitive arrays. Windowed statistics are
+ * computed over the buffer without allocation. Not thread safe.
+ */
+public class SampleWindow {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final double[] values;
+  private final long[] times;
+  private final double alpha;
+  private int next;
+  private int size;
+  private double ewma = Double.NaN;
+
+  public SampleWindow(int capacity, double alpha) {
+    this.values = new double[capacity];
+    this.times = new long[capacity];
+    this.alpha = alpha;
+  }
+
+  public void add(double value, long nanoTime) {
+    values[next] = value;
+    times[next] = nanoTime;
+    next = (next + 1) % values.length;
+    size = Math.min(size + 1, values.length);
+    ewma = Double.isNaN(ewma) ? value : alpha * value + (1 - alpha) * ewma;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public double ewma() {
+    return ewma;
+  }
+
+  /** Change per second between the oldest and the newest sample */
+  public double ratePerSecond() {
+    if (size < 2) {
+      return Double.NaN;
+    }
+    var oldest = index(0);
+    var newest = index(size - 1);
+    var elapsed = (times[newest] - times[oldest]) / NANOS_PER_SECOND;
+    return elapsed > 0 ? (values[newest] - values[oldest]) / elapsed : Double.NaN;
+  }
+
+  /** Least squares slope per second over all samples in the window */
+  public double slopePerSecond() {
+    if (size < 2) {
+      return Double.NaN;
+    }
+    var origin = times[index(0)];
+    double sumX = 0;
+    double sumY = 0;
+    double sumXy = 0;
+    double sumXx = 0;
+    for (int i = 0; i < size; i++) {
+      var sample = index(i);
+      var x = (times[sample] - origin) / NANOS_PER_SECOND;
+      var y = values[sample];
+      sumX += x;
+      sumY += y;
+      sumXy += x * y;
+      sumXx += x * x;
+    }
+    var denominator = size * sumXx - sumX * sumX;
+    return denominator > 0 ? (size * sumXy - sumX * sumY) / denominator : Double.NaN;
+  }
+
+  //Index of the i-th oldest sample
+  private int index(int i) {
+    return (next - size + i + values.length) % values.length;
+  }
+}
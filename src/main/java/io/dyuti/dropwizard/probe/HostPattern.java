@@ -0,0 +1,80 @@
+package io.dyuti.dropwizard.probe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Expands host name patterns such as {@code rack[1-4]-node[001-120].example.com} into the list of
+ * host names they describe. Every {@code [start-end]} segment is an inclusive numeric range, and a
+ * range whose start has a leading zero is zero-padded to the width of its start.
+ */
+public final class HostPattern {
+
+  //Upper bound on the number of hosts a single pattern may expand to
+  static final int MAX_HOSTS = 100_000;
+
+  private static final Pattern RANGE = Pattern.compile("\\[(\\d+)-(\\d+)]");
+
+  private HostPattern() {
+  }
+
+  public static List<String> expand(String pattern) {
+    var literals = new ArrayList<String>();
+    var ranges = new ArrayList<int[]>();
+    var matcher = RANGE.matcher(pattern);
+    int position = 0;
+    long count = 1;
+    while (matcher.find()) {
+      literals.add(pattern.substring(position, matcher.start()));
+      var start = matcher.group(1);
+      int first = Integer.parseInt(start);
+      int last = Integer.parseInt(matcher.group(2));
+      if (last < first) {
+        throw new IllegalArgumentException("Invalid range %s in host pattern %s"
+            .formatted(matcher.group(), pattern));
+      }
+      int width = start.length() > 1 && start.charAt(0) == '0' ? start.length() : 0;
+      ranges.add(new int[] {first, last, width});
+      count *= last - first + 1L;
+      if (count > MAX_HOSTS) {
+        throw new IllegalArgumentException("Host pattern %s expands to more than %d hosts"
+            .formatted(pattern, MAX_HOSTS));
+      }
+      position = matcher.end();
+    }
+    literals.add(pattern.substring(position));
+    if (ranges.isEmpty() || literals.stream().anyMatch(l -> l.indexOf('[') >= 0
+        || l.indexOf(']') >= 0)) {
+      throw new IllegalArgumentException(
+          "Host pattern %s must contain [start-end] ranges and no other brackets"
+              .formatted(pattern));
+    }
+    var hosts = new ArrayList<String>((int) count);
+    expand(literals, ranges, 0, new StringBuilder(pattern.length()), hosts);
+    return List.copyOf(hosts);
+  }
+
+  private static void expand(List<String> literals, List<int[]> ranges, int segment,
+      StringBuilder host, List<String> hosts) {
+    var length = host.length();
+    host.append(literals.get(segment));
+    if (segment == ranges.size()) {
+      hosts.add(host.toString());
+      host.setLength(length);
+      return;
+    }
+    var range = ranges.get(segment);
+    var prefixLength = host.length();
+    for (int value = range[0]; value <= range[1]; value++) {
+      var digits = Integer.toString(value);
+      for (int pad = digits.length(); pad < range[2]; pad++) {
+        host.append('0');
+      }
+      host.append(digits);
+      expand(literals, ranges, segment + 1, host, hosts);
+      host.setLength(prefixLength);
+    }
+    host.setLength(length);
+  }
+}
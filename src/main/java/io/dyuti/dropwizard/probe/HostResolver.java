@@ -0,0 +1,112 @@
+package io.dyuti.dropwizard.probe;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches resolved host addresses so probes only connect. A host is resolved on the executor when
+ * it is added and refreshed there once its address is older than the TTL, while probes keep using
+ * the last resolved address. A probe only resolves on the calling thread when the host has never
+ * been resolved, and a failed refresh keeps the last known address.
+ */
+@Slf4j
+public class HostResolver {
+
+  private static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+  private final Executor executor;
+  private final long ttlNanos;
+
+  //A TTL of 0 follows the JVM networkaddress.cache.ttl
+  public HostResolver(Executor executor, long ttlMillis) {
+    this.executor = executor;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis > 0 ? ttlMillis : jvmTtlMillis());
+  }
+
+  public Host add(String hostName) {
+    var host = new Host(hostName);
+    host.refreshAsync();
+    return host;
+  }
+
+  private static long jvmTtlMillis() {
+    try {
+      var ttl = Security.getProperty("networkaddress.cache.ttl");
+      if (ttl == null) {
+        return DEFAULT_TTL_MILLIS;
+      }
+      var seconds = Long.parseLong(ttl.trim());
+      return seconds < 0 ? Long.MAX_VALUE / 1_000_000 : Math.max(1, seconds) * 1000;
+    } catch (NumberFormatException e) {
+      return DEFAULT_TTL_MILLIS;
+    }
+  }
+
+  /**
+   * A host name with its cached address.
+   */
+  public final class Host {
+
+    private final String name;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile InetAddress address;
+    private volatile long resolvedAt;
+    private volatile boolean attempted;
+
+    private Host(String name) {
+      this.name = name;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    //Unresolved when the host could never be resolved, the probe engine reports those as unknown
+    public InetSocketAddress address(int port) {
+      var current = address;
+      if (current == null && !attempted) {
+        resolve();
+        current = address;
+      } else if (System.nanoTime() - resolvedAt >= ttlNanos) {
+        refreshAsync();
+      }
+      return current == null ? InetSocketAddress.createUnresolved(name, port)
+          : new InetSocketAddress(current, port);
+    }
+
+    private void refreshAsync() {
+      if (!refreshing.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        executor.execute(() -> {
+          try {
+            resolve();
+          } finally {
+            refreshing.set(false);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        refreshing.set(false);
+      }
+    }
+
+    private void resolve() {
+      try {
+        address = InetAddress.getByName(name);
+      } catch (UnknownHostException e) {
+        log.warn("Unable to resolve host {}: {}", name, e.getMessage());
+      } finally {
+        resolvedAt = System.nanoTime();
+        attempted = true;
+      }
+    }
+  }
+}
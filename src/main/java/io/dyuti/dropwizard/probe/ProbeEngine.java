@@ -0,0 +1,334 @@
+package io.dyuti.dropwizard.probe;
+
+import io.dropwizard.lifecycle.Managed;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared connectivity probe engine. Connect attempts and TLS handshakes are made with non-blocking
+ * socket channels multiplexed over a single selector thread, so any number of concurrent probes
+ * cost one thread and complete within their own deadline. The returned futures never complete
+ * exceptionally; failures are reported through {@link ProbeResult}.
+ */
+@Slf4j
+public class ProbeEngine implements Managed {
+
+  private final Queue<Probe> submissions = new ConcurrentLinkedQueue<>();
+  //Only accessed from the selector thread
+  private final PriorityQueue<Probe> deadlines =
+      new PriorityQueue<>(Comparator.comparingLong(Probe::getDeadline));
+  private Selector selector;
+  private Thread selectorThread;
+  private volatile boolean running;
+
+  public CompletableFuture<ProbeResult> connect(InetSocketAddress address, int timeoutMillis) {
+    return submit(new Probe(address, timeoutMillis, null));
+  }
+
+  /**
+   * Connects and performs a TLS handshake without sending any request. The deadline covers both the
+   * connect and the handshake. The peer certificate chain is returned with the result.
+   */
+  public CompletableFuture<ProbeResult> handshake(InetSocketAddress address, SSLContext sslContext,
+      int timeoutMillis) {
+    if (address.isUnresolved()) {
+      return connect(address, timeoutMillis);
+    }
+    var sslEngine = sslContext.createSSLEngine(address.getHostString(), address.getPort());
+    return submit(new Probe(address, timeoutMillis, new TlsHandshake(sslEngine)));
+  }
+
+  private CompletableFuture<ProbeResult> submit(Probe probe) {
+    var address = probe.address;
+    if (!running) {
+      probe.fail(new IllegalStateException("Probe engine is not running"));
+    } else if (address.isUnresolved()) {
+      probe.fail(new UnknownHostException(address.getHostString()));
+    } else {
+      submissions.add(probe);
+      selector.wakeup();
+    }
+    return probe.future;
+  }
+
+  /**
+   * Probes all addresses with at most maxConcurrency connects in flight. Every probe finishes
+   * within the overall deadline, so the returned future completes within deadlineMillis. Results
+   * are returned in the order of the given addresses.
+   */
+  public CompletableFuture<List<ProbeResult>> connectAll(List<InetSocketAddress> addresses,
+      int timeoutMillis, int maxConcurrency, int deadlineMillis) {
+    return new FanOut(addresses, timeoutMillis, maxConcurrency, deadlineMillis).start();
+  }
+
+  @Override
+  public synchronized void start() throws IOException {
+    if (running) {
+      return;
+    }
+    selector = Selector.open();
+    running = true;
+    selectorThread = new Thread(this::loop, "healthcheck-extras-probe");
+    selectorThread.setDaemon(true);
+    selectorThread.start();
+  }
+
+  @Override
+  public synchronized void stop() throws InterruptedException {
+    if (!running) {
+      return;
+    }
+    running = false;
+    selector.wakeup();
+    selectorThread.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private void loop() {
+    while (running) {
+      try {
+        registerSubmissions();
+        select();
+        expireProbes();
+      } catch (Exception e) {
+        log.error("Error in probe engine selector loop", e);
+      }
+    }
+    shutdown();
+  }
+
+  private void registerSubmissions() {
+    Probe probe;
+    while ((probe = submissions.poll()) != null) {
+      try {
+        var channel = SocketChannel.open();
+        probe.channel = channel;
+        channel.configureBlocking(false);
+        if (channel.connect(probe.address)) {
+          connected(probe, channel.register(selector, 0, probe));
+        } else {
+          channel.register(selector, SelectionKey.OP_CONNECT, probe);
+        }
+        deadlines.add(probe);
+      } catch (IOException e) {
+        probe.fail(e);
+      }
+    }
+  }
+
+  private void select() throws IOException {
+    var head = deadlines.peek();
+    if (head == null) {
+      selector.select();
+    } else {
+      var remaining = TimeUnit.NANOSECONDS.toMillis(head.deadline - System.nanoTime());
+      selector.select(Math.max(1, remaining));
+    }
+    var selected = selector.selectedKeys().iterator();
+    while (selected.hasNext()) {
+      var key = selected.next();
+      selected.remove();
+      var probe = (Probe) key.attachment();
+      try {
+        if (!key.isValid()) {
+          continue;
+        }
+        if (key.isConnectable()) {
+          if (probe.channel.finishConnect()) {
+            key.interestOps(0);
+            connected(probe, key);
+          }
+        } else if (probe.tls != null && (key.isReadable() || key.isWritable())) {
+          handshake(probe, key);
+        }
+      } catch (IOException e) {
+        probe.fail(e);
+      }
+    }
+  }
+
+  private void connected(Probe probe, SelectionKey key) throws IOException {
+    probe.connectedAt = System.nanoTime();
+    if (probe.tls == null) {
+      probe.succeed(List.of());
+    } else {
+      handshake(probe, key);
+    }
+  }
+
+  private void handshake(Probe probe, SelectionKey key) throws IOException {
+    if (probe.tls.advance(probe.channel, key)) {
+      probe.succeed(probe.tls.peerCertificates());
+    }
+  }
+
+  private void expireProbes() {
+    var now = System.nanoTime();
+    while (!deadlines.isEmpty()) {
+      var head = deadlines.peek();
+      if (!head.future.isDone() && head.deadline - now > 0) {
+        return;
+      }
+      deadlines.poll();
+      head.fail(new SocketTimeoutException("%s timed out after %d ms".formatted(
+          head.tls == null ? "Connect" : "TLS handshake", head.timeoutMillis)));
+    }
+  }
+
+  private void shutdown() {
+    var error = new IllegalStateException("Probe engine stopped");
+    Probe probe;
+    while ((probe = submissions.poll()) != null) {
+      probe.fail(error);
+    }
+    while ((probe = deadlines.poll()) != null) {
+      probe.fail(error);
+    }
+    try {
+      selector.close();
+    } catch (IOException e) {
+      log.warn("Error closing probe engine selector", e);
+    }
+  }
+
+  private static final class Probe {
+
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+    private final long startedAt;
+    private final long deadline;
+    private final TlsHandshake tls;
+    private final CompletableFuture<ProbeResult> future = new CompletableFuture<>();
+    private SocketChannel channel;
+    private long connectedAt;
+
+    private Probe(InetSocketAddress address, int timeoutMillis, TlsHandshake tls) {
+      this.address = address;
+      this.timeoutMillis = timeoutMillis;
+      this.tls = tls;
+      this.startedAt = System.nanoTime();
+      this.deadline = startedAt + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    private long getDeadline() {
+      return deadline;
+    }
+
+    private long elapsedNanos() {
+      return System.nanoTime() - startedAt;
+    }
+
+    private long connectNanos() {
+      return connectedAt == 0 ? -1 : connectedAt - startedAt;
+    }
+
+    private void succeed(List<X509Certificate> certificates) {
+      if (!future.isDone()) {
+        close();
+        future.complete(ProbeResult.reachable(address, elapsedNanos(), connectNanos(),
+            certificates));
+      }
+    }
+
+    private void fail(Throwable error) {
+      if (!future.isDone()) {
+        close();
+        future.complete(ProbeResult.unreachable(address, elapsedNanos(), connectNanos(),
+            error));
+      }
+    }
+
+    private void close() {
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          log.debug("Error closing probe channel for {}", address, e);
+        }
+      }
+    }
+  }
+
+  private final class FanOut {
+
+    private final List<InetSocketAddress> addresses;
+    private final int timeoutMillis;
+    private final long deadline;
+    private final ProbeResult[] results;
+    private final AtomicInteger permits;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final CompletableFuture<List<ProbeResult>> future = new CompletableFuture<>();
+    //Guarded by the wip counter
+    private int next;
+
+    private FanOut(List<InetSocketAddress> addresses, int timeoutMillis, int maxConcurrency,
+        int deadlineMillis) {
+      this.addresses = addresses;
+      this.timeoutMillis = timeoutMillis;
+      this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+      this.results = new ProbeResult[addresses.size()];
+      this.permits = new AtomicInteger(maxConcurrency);
+    }
+
+    private CompletableFuture<List<ProbeResult>> start() {
+      if (addresses.isEmpty()) {
+        future.complete(List.of());
+      } else {
+        drain();
+      }
+      return future;
+    }
+
+    //Submissions are serialized through the wip counter so synchronous completions do not recurse
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      do {
+        while (next < addresses.size() && permits.get() > 0) {
+          permits.decrementAndGet();
+          submit(next++);
+        }
+      } while (wip.decrementAndGet() != 0);
+    }
+
+    private void submit(int index) {
+      var address = addresses.get(index);
+      var remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remaining <= 0) {
+        complete(index, ProbeResult.unreachable(address, 0, -1,
+            new SocketTimeoutException("Overall probe deadline exceeded")));
+        return;
+      }
+      connect(address, (int) Math.min(timeoutMillis, remaining))
+          .thenAccept(result -> complete(index, result));
+    }
+
+    private void complete(int index, ProbeResult result) {
+      results[index] = result;
+      permits.incrementAndGet();
+      if (completed.incrementAndGet() == results.length) {
+        future.complete(Arrays.asList(results));
+      } else {
+        drain();
+      }
+    }
+  }
+}
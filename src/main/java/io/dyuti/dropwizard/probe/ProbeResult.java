@@ -0,0 +1,42 @@
+package io.dyuti.dropwizard.probe;
+
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.security.cert.X509Certificate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a single connectivity probe. Certificates are only captured by TLS handshake probes.
+ * The connect duration is -1 when the connection was never established.
+ */
+public record ProbeResult(InetSocketAddress address, boolean reachable, long durationNanos,
+                          long connectNanos, Throwable error, List<X509Certificate> certificates) {
+
+  static ProbeResult reachable(InetSocketAddress address, long durationNanos, long connectNanos,
+      List<X509Certificate> certificates) {
+    return new ProbeResult(address, true, durationNanos, connectNanos, null, certificates);
+  }
+
+  public static ProbeResult unreachable(InetSocketAddress address, long durationNanos, long connectNanos,
+      Throwable error) {
+    return new ProbeResult(address, false, durationNanos, connectNanos, error, List.of());
+  }
+
+  public long durationMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+  }
+
+  public boolean timedOut() {
+    return error instanceof SocketTimeoutException;
+  }
+
+  public String target() {
+    return address.getHostString() + ":" + address.getPort();
+  }
+
+  public String errorMessage() {
+    return error == null ? "unknown error"
+        : error.getClass().getSimpleName() + ": " + error.getMessage();
+  }
+}
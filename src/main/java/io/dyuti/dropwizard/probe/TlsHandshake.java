@@ -0,0 +1,141 @@
+package io.dyuti.dropwizard.probe;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.List;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.Status;
+import javax.net.ssl.SSLException;
+
+/**
+ * Drives a client TLS handshake over a non-blocking socket channel. Only used from the probe engine
+ * selector thread; no application data is ever exchanged.
+ */
+final class TlsHandshake {
+
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private final SSLEngine engine;
+  private ByteBuffer netIn;
+  private ByteBuffer netOut;
+  private ByteBuffer appIn;
+  private boolean started;
+
+  TlsHandshake(SSLEngine engine) {
+    this.engine = engine;
+    engine.setUseClientMode(true);
+    var session = engine.getSession();
+    netIn = ByteBuffer.allocate(session.getPacketBufferSize());
+    netOut = ByteBuffer.allocate(session.getPacketBufferSize());
+    appIn = ByteBuffer.allocate(session.getApplicationBufferSize());
+  }
+
+  /**
+   * Advances the handshake as far as possible without blocking. Returns true once the handshake is
+   * complete, otherwise registers the interest required to continue.
+   */
+  boolean advance(SocketChannel channel, SelectionKey key) throws IOException {
+    if (!started) {
+      engine.beginHandshake();
+      started = true;
+    }
+    if (netOut.position() > 0 && !flush(channel, key)) {
+      return false;
+    }
+    while (true) {
+      switch (engine.getHandshakeStatus()) {
+        case NEED_WRAP -> {
+          if (!wrap(channel, key)) {
+            return false;
+          }
+        }
+        case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+          if (!unwrap(channel, key)) {
+            return false;
+          }
+        }
+        case NEED_TASK -> {
+          Runnable task;
+          while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+          }
+        }
+        default -> {
+          key.interestOps(0);
+          return true;
+        }
+      }
+    }
+  }
+
+  List<X509Certificate> peerCertificates() throws SSLException {
+    return Arrays.stream(engine.getSession().getPeerCertificates())
+        .filter(X509Certificate.class::isInstance)
+        .map(X509Certificate.class::cast)
+        .toList();
+  }
+
+  private boolean wrap(SocketChannel channel, SelectionKey key) throws IOException {
+    var result = engine.wrap(EMPTY, netOut);
+    if (result.getStatus() == Status.BUFFER_OVERFLOW) {
+      netOut = enlarge(netOut, engine.getSession().getPacketBufferSize());
+      return true;
+    }
+    if (result.getStatus() == Status.CLOSED) {
+      throw new SSLException("TLS engine closed during handshake");
+    }
+    return flush(channel, key);
+  }
+
+  private boolean unwrap(SocketChannel channel, SelectionKey key) throws IOException {
+    netIn.flip();
+    var result = engine.unwrap(netIn, appIn);
+    netIn.compact();
+    switch (result.getStatus()) {
+      case BUFFER_OVERFLOW ->
+          appIn = enlarge(appIn, engine.getSession().getApplicationBufferSize());
+      case BUFFER_UNDERFLOW -> {
+        if (!netIn.hasRemaining()) {
+          netIn = enlarge(netIn, engine.getSession().getPacketBufferSize());
+        }
+        int read = channel.read(netIn);
+        if (read < 0) {
+          throw new EOFException("Connection closed during TLS handshake");
+        }
+        if (read == 0) {
+          key.interestOps(SelectionKey.OP_READ);
+          return false;
+        }
+      }
+      case CLOSED -> throw new SSLException("TLS engine closed during handshake");
+      default -> {
+        //Handshake progressed
+      }
+    }
+    return true;
+  }
+
+  private boolean flush(SocketChannel channel, SelectionKey key) throws IOException {
+    netOut.flip();
+    channel.write(netOut);
+    if (netOut.hasRemaining()) {
+      netOut.compact();
+      key.interestOps(SelectionKey.OP_WRITE);
+      return false;
+    }
+    netOut.clear();
+    return true;
+  }
+
+  private static ByteBuffer enlarge(ByteBuffer buffer, int size) {
+    var enlarged = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+    buffer.flip();
+    enlarged.put(buffer);
+    return enlarged;
+  }
+}
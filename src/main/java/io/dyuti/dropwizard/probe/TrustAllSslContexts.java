@@ -0,0 +1,54 @@
+package io.dyuti.dropwizard.probe;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared SSL contexts that accept any server certificate. Contexts are created once per protocol,
+ * so their client session cache allows TLS sessions to be resumed across health check executions.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TrustAllSslContexts {
+
+  private static final TrustManager[] TRUST_ALL_CERTS = new TrustManager[]{
+      new X509TrustManager() {
+        public X509Certificate[] getAcceptedIssuers() {
+          return new X509Certificate[0];
+        }
+
+        public void checkClientTrusted(X509Certificate[] certs, String authType) {
+          log.debug("Client trusted: {}", authType);
+        }
+
+        public void checkServerTrusted(X509Certificate[] certs, String authType) {
+          log.debug("Server trusted: {}", authType);
+        }
+      }
+  };
+
+  private static final Map<String, SSLContext> CONTEXTS = new ConcurrentHashMap<>();
+
+  public static SSLContext get(String protocol) {
+    return CONTEXTS.computeIfAbsent(protocol, TrustAllSslContexts::create);
+  }
+
+  private static SSLContext create(String protocol) {
+    try {
+      var sslContext = SSLContext.getInstance(protocol);
+      sslContext.init(null, TRUST_ALL_CERTS, new SecureRandom());
+      return sslContext;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Unable to initialize TLS version " + protocol, e);
+    }
+  }
+}
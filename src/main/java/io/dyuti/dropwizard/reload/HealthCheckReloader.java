@@ -0,0 +1,117 @@
+package io.dyuti.dropwizard.reload;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import io.dropwizard.configuration.ConfigurationException;
+import io.dropwizard.configuration.ConfigurationFactory;
+import io.dropwizard.configuration.FileConfigurationSourceProvider;
+import io.dropwizard.lifecycle.Managed;
+import io.dyuti.dropwizard.config.HealthcheckExtrasConfig;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.Optional;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reloads the health check definitions from a file and hands them to the bundle, which only
+ * changes the health checks that differ from the registered ones. Reloads are triggered through
+ * the admin task or, when watching, by changes in the directory of the file. Directory events are
+ * used so that files replaced by editors or through symbolic links are picked up as well.
+ */
+@Slf4j
+public class HealthCheckReloader implements Managed {
+
+  //Editors and config map updates touch the directory several times per change
+  private static final long SETTLE_MILLIS = 500;
+
+  private final Path file;
+  private final boolean watch;
+  private final ConfigurationFactory<HealthcheckExtrasConfig> configurationFactory;
+  private final Function<HealthcheckExtrasConfig, ReloadSummary> apply;
+  private WatchService watchService;
+  private Thread watcher;
+
+  public HealthCheckReloader(Path file, boolean watch,
+      ConfigurationFactory<HealthcheckExtrasConfig> configurationFactory,
+      Function<HealthcheckExtrasConfig, ReloadSummary> apply) {
+    this.file = file.toAbsolutePath();
+    this.watch = watch;
+    this.configurationFactory = configurationFactory;
+    this.apply = apply;
+  }
+
+  //Health checks of the file, if it exists
+  public Optional<HealthcheckExtrasConfig> load() throws IOException, ConfigurationException {
+    if (!Files.exists(file)) {
+      log.warn("Health check file {} does not exist, using the application configuration", file);
+      return Optional.empty();
+    }
+    return Optional.of(read());
+  }
+
+  public synchronized ReloadSummary reload() throws IOException, ConfigurationException {
+    var summary = apply.apply(read());
+    if (!summary.isEmpty()) {
+      log.info("Reloaded health checks from {}. {}", file, summary);
+    }
+    return summary;
+  }
+
+  @Override
+  public void start() throws IOException {
+    if (!watch) {
+      return;
+    }
+    watchService = file.getFileSystem().newWatchService();
+    file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    watcher = new Thread(this::watch, "healthcheck-extras-reload");
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  @Override
+  public void stop() throws IOException {
+    if (watchService != null) {
+      watchService.close();
+      watcher.interrupt();
+    }
+  }
+
+  private HealthcheckExtrasConfig read() throws IOException, ConfigurationException {
+    return configurationFactory.build(new FileConfigurationSourceProvider(), file.toString());
+  }
+
+  private void watch() {
+    try {
+      while (true) {
+        var key = watchService.take();
+        Thread.sleep(SETTLE_MILLIS);
+        do {
+          key.pollEvents();
+          key.reset();
+        } while ((key = watchService.poll()) != null);
+        if (Files.exists(file)) {
+          reloadQuietly();
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      log.debug("Stopped watching {}", file);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  //An invalid file keeps the registered health checks
+  private void reloadQuietly() {
+    try {
+      reload();
+    } catch (IOException | ConfigurationException | RuntimeException e) {
+      log.error("Unable to reload health checks from {}", file, e);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package io.dyuti.dropwizard.reload;
+
+import io.dropwizard.servlets.tasks.Task;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin task that reloads the health check definitions, {@code POST /tasks/reload-healthchecks}.
+ */
+public class ReloadHealthChecksTask extends Task {
+
+  private final HealthCheckReloader reloader;
+
+  public ReloadHealthChecksTask(HealthCheckReloader reloader) {
+    super("reload-healthchecks");
+    this.reloader = reloader;
+  }
+
+  @Override
+  public void execute(Map<String, List<String>> parameters, PrintWriter output) throws Exception {
+    output.println(reloader.reload());
+  }
+}
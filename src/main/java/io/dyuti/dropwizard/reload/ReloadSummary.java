@@ -0,0 +1,18 @@
+package io.dyuti.dropwizard.reload;
+
+import java.util.List;
+
+/**
+ * Names of the health checks a reload registered, reconfigured and unregistered.
+ */
+public record ReloadSummary(List<String> added, List<String> updated, List<String> removed) {
+
+  public boolean isEmpty() {
+    return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "added: %s, updated: %s, removed: %s".formatted(added, updated, removed);
+  }
+}
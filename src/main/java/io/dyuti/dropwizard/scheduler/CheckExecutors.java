@@ -0,0 +1,67 @@
+package io.dyuti.dropwizard.scheduler;
+
+import io.dropwizard.lifecycle.ExecutorServiceManager;
+import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
+import io.dyuti.dropwizard.config.ThreadMode;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the lifecycle managed executors that run health checks and their probes. In virtual mode
+ * every task gets its own virtual thread, so blocking probes are cheap no matter how many run at
+ * the same time. Virtual threads need Java 21 and are looked up reflectively, older runtimes fall
+ * back to a bounded pool of platform threads.
+ */
+@Slf4j
+public final class CheckExecutors {
+
+  private static final Duration SHUTDOWN_PERIOD = Duration.seconds(5);
+
+  private CheckExecutors() {
+  }
+
+  //Threads bounds the platform pool and is ignored for virtual threads
+  public static ExecutorService create(Environment environment, String nameFormat,
+      ThreadMode mode, int threads) {
+    if (mode == ThreadMode.VIRTUAL) {
+      var prefix = nameFormat.replace("%d", "");
+      var executor = virtualThreadPerTask(prefix);
+      if (executor != null) {
+        environment.lifecycle()
+            .manage(new ExecutorServiceManager(executor, SHUTDOWN_PERIOD, prefix));
+        return executor;
+      }
+      log.warn("Virtual threads require Java 21, running {} on {} platform threads", prefix,
+          threads);
+    }
+    return environment
+        .lifecycle()
+        .executorService(nameFormat)
+        .minThreads(threads)
+        .maxThreads(threads)
+        .build();
+  }
+
+  //Equivalent of Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())
+  static ExecutorService virtualThreadPerTask(String prefix) {
+    try {
+      var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      var builderType = Class.forName("java.lang.Thread$Builder");
+      builder = builderType.getMethod("name", String.class, long.class)
+          .invoke(builder, prefix, 0L);
+      var factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+      return (ExecutorService) Executors.class
+          .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, factory);
+    } catch (NoSuchMethodException | ClassNotFoundException e) {
+      return null;
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      log.warn("Unable to create virtual thread executor {}", prefix, e);
+      return null;
+    }
+  }
+}
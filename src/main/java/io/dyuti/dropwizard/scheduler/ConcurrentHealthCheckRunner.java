@@ -0,0 +1,173 @@
+package io.dyuti.dropwizard.scheduler;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.codahale.metrics.health.HealthCheck.Result;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs health checks concurrently under a shared deadline. The health check registry still calls
+ * the health checks one after another, but the first call of a round submits all of them to the
+ * executor and every call only waits for its own health check until the deadline of the round. A
+ * health check that is still running from an earlier round is not submitted again, so a slow
+ * health check never occupies more than one thread. Health checks are submitted once the health
+ * checks they depend on completed in the same round, so they are evaluated in topological order.
+ */
+@Slf4j
+public class ConcurrentHealthCheckRunner {
+
+  private final Executor executor;
+  private final long deadlineNanos;
+  private final List<DeadlineHealthCheck> healthChecks = new CopyOnWriteArrayList<>();
+  private final Map<String, DeadlineHealthCheck> healthChecksByName = new ConcurrentHashMap<>();
+  private Round round;
+
+  public ConcurrentHealthCheckRunner(Executor executor, long deadlineMillis) {
+    this.executor = executor;
+    this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+  }
+
+  public DeadlineHealthCheck add(String name, HealthCheck healthCheck, List<String> dependsOn) {
+    var deadlineHealthCheck = new DeadlineHealthCheck(name, healthCheck, List.copyOf(dependsOn));
+    healthChecks.add(deadlineHealthCheck);
+    healthChecksByName.put(name, deadlineHealthCheck);
+    return deadlineHealthCheck;
+  }
+
+  //A running execution of the health check still completes but is no longer served
+  public void remove(DeadlineHealthCheck healthCheck) {
+    healthChecks.remove(healthCheck);
+    healthChecksByName.remove(healthCheck.getName(), healthCheck);
+  }
+
+  //A new round starts once the deadline passed or the health check was already served this round
+  private synchronized Round join(DeadlineHealthCheck healthCheck) {
+    var now = System.nanoTime();
+    var current = round;
+    if (current == null || now - current.startedAt >= deadlineNanos
+        || healthCheck.round != current || healthCheck.served) {
+      current = new Round(now);
+      for (var member : healthChecks) {
+        member.served = false;
+        submit(member, current);
+      }
+      round = current;
+    }
+    healthCheck.served = true;
+    return current;
+  }
+
+  //Upstream health checks that are not run by the runner are not waited for
+  private CompletableFuture<Result> submit(DeadlineHealthCheck healthCheck, Round current) {
+    if (healthCheck.round == current) {
+      return healthCheck.future;
+    }
+    healthCheck.round = current;
+    var upstream = new ArrayList<CompletableFuture<Result>>(healthCheck.dependsOn.size());
+    for (var name : healthCheck.dependsOn) {
+      var upstreamHealthCheck = healthChecksByName.get(name);
+      if (upstreamHealthCheck != null) {
+        upstream.add(submit(upstreamHealthCheck, current));
+      }
+    }
+    healthCheck.future = upstream.isEmpty() ? healthCheck.submit()
+        : CompletableFuture.allOf(upstream.toArray(CompletableFuture[]::new))
+            .thenCompose(ignored -> {
+              synchronized (this) {
+                return healthCheck.submit();
+              }
+            });
+    return healthCheck.future;
+  }
+
+  private record Round(long startedAt) {
+
+  }
+
+  /**
+   * Health check registered in place of a health check that runs concurrently. Serves the result
+   * of the current round, or the last known result when the deadline passes first.
+   */
+  public final class DeadlineHealthCheck extends HealthCheck {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final HealthCheck delegate;
+    private final List<String> dependsOn;
+    //Guarded by the runner
+    private Round round;
+    private boolean served;
+    private CompletableFuture<Result> future;
+    private CompletableFuture<Result> running;
+    private volatile Result latest;
+
+    private DeadlineHealthCheck(String name, HealthCheck delegate, List<String> dependsOn) {
+      this.name = name;
+      this.delegate = delegate;
+      this.dependsOn = dependsOn;
+    }
+
+    @Override
+    protected Result check() throws Exception {
+      CompletableFuture<Result> current;
+      long remaining;
+      synchronized (ConcurrentHealthCheckRunner.this) {
+        remaining = join(this).startedAt + deadlineNanos - System.nanoTime();
+        current = future;
+      }
+      try {
+        return current.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+      } catch (TimeoutException e) {
+        return timedOut();
+      } catch (ExecutionException e) {
+        return Result.unhealthy(e.getCause());
+      }
+    }
+
+    //Called with the runner lock held
+    private CompletableFuture<Result> submit() {
+      if (running != null && !running.isDone()) {
+        return running;
+      }
+      try {
+        running = CompletableFuture.supplyAsync(delegate::execute, executor);
+        running.thenAccept(result -> latest = result);
+      } catch (RejectedExecutionException e) {
+        log.warn("Unable to run health check {}", name, e);
+        running = CompletableFuture.completedFuture(Result.unhealthy(e));
+      }
+      return running;
+    }
+
+    private Result timedOut() {
+      var deadline = TimeUnit.NANOSECONDS.toMillis(deadlineNanos);
+      var last = latest;
+      if (last == null) {
+        return Result.builder()
+            .unhealthy()
+            .withMessage("Health check %s did not complete within %d ms", name, deadline)
+            .withDetail("timedOut", true)
+            .build();
+      }
+      var builder = last.isHealthy() ? Result.builder().healthy() : Result.builder().unhealthy();
+      return builder
+          .withMessage("Health check %s did not complete within %d ms, last result: %s", name,
+              deadline, last.getMessage())
+          .withDetail("timedOut", true)
+          .withDetail("lastResultAt", last.getTimestamp())
+          .build();
+    }
+  }
+}
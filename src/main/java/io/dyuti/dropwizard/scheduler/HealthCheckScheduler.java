@@ -0,0 +1,100 @@
+package io.dyuti.dropwizard.scheduler;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dropwizard.lifecycle.Managed;
+import io.dyuti.dropwizard.config.ScheduleConfig;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs health checks in the background on a lifecycle managed executor. Each health check is
+ * rescheduled after every execution using its interval and jitter, so a slow health check never
+ * overlaps with itself. When a worker executor is given the scheduler threads only trigger the
+ * executions, which then block on the workers.
+ */
+@Slf4j
+public class HealthCheckScheduler implements Managed {
+
+  private final ScheduledExecutorService executor;
+  private final Executor workers;
+  private final List<ScheduledHealthCheck> healthChecks = new CopyOnWriteArrayList<>();
+  private volatile boolean running;
+
+  public HealthCheckScheduler(ScheduledExecutorService executor) {
+    this(executor, null);
+  }
+
+  public HealthCheckScheduler(ScheduledExecutorService executor, Executor workers) {
+    this.executor = executor;
+    this.workers = workers;
+  }
+
+  public ScheduledHealthCheck schedule(String name, HealthCheck healthCheck,
+      ScheduleConfig schedule) {
+    var scheduled = new ScheduledHealthCheck(name, healthCheck, schedule);
+    healthChecks.add(scheduled);
+    if (running) {
+      submit(scheduled, scheduled.initialDelay());
+    }
+    return scheduled;
+  }
+
+  //An execution that is already running completes, but the health check is not run again
+  public void cancel(ScheduledHealthCheck healthCheck) {
+    healthChecks.remove(healthCheck);
+    healthCheck.cancel();
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    healthChecks.forEach(healthCheck -> submit(healthCheck, healthCheck.initialDelay()));
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+  }
+
+  private void submit(ScheduledHealthCheck healthCheck, long delay) {
+    if (!running || executor.isShutdown() || healthCheck.isCancelled()) {
+      return;
+    }
+    try {
+      executor.schedule(() -> dispatch(healthCheck), delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      log.warn("Unable to schedule health check {}", healthCheck.getName(), e);
+    }
+  }
+
+  private void dispatch(ScheduledHealthCheck healthCheck) {
+    if (healthCheck.isCancelled()) {
+      return;
+    }
+    if (workers == null) {
+      execute(healthCheck);
+      return;
+    }
+    try {
+      workers.execute(() -> execute(healthCheck));
+    } catch (RejectedExecutionException e) {
+      log.warn("Unable to run health check {}", healthCheck.getName(), e);
+      submit(healthCheck, healthCheck.nextDelay());
+    }
+  }
+
+  private void execute(ScheduledHealthCheck healthCheck) {
+    try {
+      healthCheck.run();
+    } catch (Exception e) {
+      log.error("Error executing scheduled health check {}", healthCheck.getName(), e);
+    } finally {
+      submit(healthCheck, healthCheck.nextDelay());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package io.dyuti.dropwizard.scheduler;
+
+import static java.util.Objects.isNull;
+
+import com.codahale.metrics.health.HealthCheck;
+import io.dyuti.dropwizard.config.ScheduleConfig;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Getter;
+
+/**
+ * Health check that serves the result of the last background execution of the wrapped health
+ * check. Results older than the configured staleness bound are reported as unhealthy. With an
+ * adaptive schedule the interval backs off while consecutive results are healthy.
+ */
+public class ScheduledHealthCheck extends HealthCheck {
+
+  @Getter
+  private final String name;
+  @Getter
+  private final HealthCheck delegate;
+  private final ScheduleConfig schedule;
+  private final long maxStaleness;
+  private volatile Execution latest;
+  private volatile long interval;
+  @Getter
+  private volatile boolean cancelled;
+
+  public ScheduledHealthCheck(String name, HealthCheck delegate, ScheduleConfig schedule) {
+    this.name = name;
+    this.delegate = delegate;
+    this.schedule = schedule;
+    this.maxStaleness = schedule.resolveMaxStaleness();
+    this.interval = schedule.getInterval();
+  }
+
+  @Override
+  protected Result check() {
+    var execution = latest;
+    if (isNull(execution)) {
+      return Result.unhealthy("Health check %s has not completed its first execution", name);
+    }
+    var age = System.currentTimeMillis() - execution.completedAt();
+    if (age > maxStaleness) {
+      return Result.unhealthy("Health check %s result is stale. Last updated %d ms ago", name, age);
+    }
+    return execution.result();
+  }
+
+  /** Executes the wrapped health check and publishes its result */
+  void run() {
+    var result = delegate.execute();
+    var previous = latest;
+    latest = new Execution(result, System.currentTimeMillis());
+    if (schedule.isAdaptive()) {
+      adapt(previous, result);
+    }
+  }
+
+  //Back to the minimum interval unless this and the previous result are healthy
+  private void adapt(Execution previous, Result result) {
+    if (!result.isHealthy() || isNull(previous) || !previous.result().isHealthy()) {
+      interval = schedule.getInterval();
+    } else {
+      interval = Math.min(schedule.getMaxInterval(), (long) (interval * schedule.getBackoff()));
+    }
+  }
+
+  void cancel() {
+    cancelled = true;
+  }
+
+  long initialDelay() {
+    var jitter = schedule.getJitter();
+    return jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1L) : 0;
+  }
+
+  long nextDelay() {
+    var jitter = schedule.getJitter();
+    if (jitter == 0) {
+      return interval;
+    }
+    return Math.max(0, interval + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1L));
+  }
+
+  private record Execution(Result result, long completedAt) {
+
+  }
+}
@@ -0,0 +1,73 @@
+package io.dyuti.dropwizard.servlet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dyuti.dropwizard.state.HealthState;
+import io.dyuti.dropwizard.state.HealthStates;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pre-encoded aggregate of the health check states. The JSON documents are only encoded again when
+ * the state of a health check changes, so serving them is a copy of the encoded bytes.
+ */
+@Slf4j
+public class HealthSnapshot implements HealthStates.Listener {
+
+  /**
+   * Encoded snapshot, the ETag is the sequence of the latest state change.
+   */
+  record Encoded(boolean healthy, String etag, byte[] full, byte[] status) {
+
+  }
+
+  private static final byte[] HEALTHY = "{\"healthy\":true}".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] UNHEALTHY = "{\"healthy\":false}".getBytes(StandardCharsets.UTF_8);
+
+  private final HealthStates states;
+  private final ObjectMapper objectMapper;
+  private volatile Encoded encoded;
+
+  public HealthSnapshot(HealthStates states, ObjectMapper objectMapper) {
+    this.states = states;
+    this.objectMapper = objectMapper;
+    this.encoded = encode(states.sequence());
+    states.addListener(this);
+  }
+
+  @Override
+  public void stateChanged(HealthState state) {
+    encoded = encode(state.sequence());
+  }
+
+  Encoded encoded() {
+    return encoded;
+  }
+
+  private Encoded encode(long sequence) {
+    var healthy = true;
+    var checks = new LinkedHashMap<String, Map<String, Object>>();
+    for (var state : states.states()) {
+      healthy &= state.isHealthy();
+      var check = new LinkedHashMap<String, Object>();
+      check.put("status", state.status());
+      check.put("message", state.message());
+      check.put("changedAt", state.changedAt());
+      checks.put(state.name(), check);
+    }
+    var snapshot = new LinkedHashMap<String, Object>();
+    snapshot.put("healthy", healthy);
+    snapshot.put("sequence", sequence);
+    snapshot.put("checks", checks);
+    byte[] full;
+    try {
+      full = objectMapper.writeValueAsBytes(snapshot);
+    } catch (JsonProcessingException e) {
+      log.error("Unable to encode health snapshot", e);
+      full = healthy ? HEALTHY : UNHEALTHY;
+    }
+    return new Encoded(healthy, "\"" + sequence + "\"", full, healthy ? HEALTHY : UNHEALTHY);
+  }
+}
@@ -0,0 +1,44 @@
+package io.dyuti.dropwizard.servlet;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the pre-encoded {@link HealthSnapshot}, either the full document or only the aggregate
+ * status. Responds with 500 when any health check is unhealthy or pending like the Dropwizard
+ * health check servlet. A healthy snapshot is answered with 304 when the If-None-Match header
+ * carries the current ETag, an unhealthy one always with its 500, so pollers that only read the
+ * status code never take a 304 for success.
+ */
+public class HealthSnapshotServlet extends HttpServlet {
+
+  private static final long serialVersionUID = 1L;
+  private static final String CONTENT_TYPE = "application/json";
+
+  private final transient HealthSnapshot snapshot;
+  private final boolean statusOnly;
+
+  public HealthSnapshotServlet(HealthSnapshot snapshot, boolean statusOnly) {
+    this.snapshot = snapshot;
+    this.statusOnly = statusOnly;
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    var encoded = snapshot.encoded();
+    resp.setHeader("Cache-Control", "must-revalidate,no-cache,no-store");
+    resp.setHeader("ETag", encoded.etag());
+    if (encoded.healthy() && encoded.etag().equals(req.getHeader("If-None-Match"))) {
+      resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+    var body = statusOnly ? encoded.status() : encoded.full();
+    resp.setStatus(encoded.healthy() ? HttpServletResponse.SC_OK
+        : HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    resp.setContentType(CONTENT_TYPE);
+    resp.setContentLength(body.length);
+    resp.getOutputStream().write(body);
+  }
+}
@@ -0,0 +1,246 @@
+package io.dyuti.dropwizard.servlet;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.lifecycle.Managed;
+import io.dyuti.dropwizard.config.StreamConfig;
+import io.dyuti.dropwizard.state.HealthState;
+import io.dyuti.dropwizard.state.HealthStates;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams health check state changes to subscribers as server-sent events. Every state change is
+ * encoded once and broadcast from a single dispatcher thread, and subscribers are written without
+ * blocking, so idle subscribers do not hold any thread. The event id is the sequence of the state
+ * change, subscribers resuming with a Last-Event-ID still in the replay buffer receive the changes
+ * they missed and all others receive the current state of every health check first. Subscribers
+ * are registered on the dispatcher thread and skip events older than the last one they received,
+ * so the backlog and the broadcasts never overlap.
+ */
+@Slf4j
+public class HealthStream implements HealthStates.Listener, Managed {
+
+  private static final Event HEARTBEAT =
+      new Event(-1, ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8));
+
+  private final HealthStates states;
+  private final ObjectMapper objectMapper;
+  private final StreamConfig config;
+  private final ScheduledExecutorService dispatcher;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  //Guarded by itself, only the latest replaySize state changes are kept
+  private final ArrayDeque<Event> replay = new ArrayDeque<>();
+
+  public HealthStream(HealthStates states, ObjectMapper objectMapper, StreamConfig config,
+      ScheduledExecutorService dispatcher) {
+    this.states = states;
+    this.objectMapper = objectMapper;
+    this.config = config;
+    this.dispatcher = dispatcher;
+    states.addListener(this);
+  }
+
+  @Override
+  public void start() {
+    dispatcher.scheduleWithFixedDelay(() -> broadcast(HEARTBEAT), config.getHeartbeatInterval(),
+        config.getHeartbeatInterval(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    subscribers.forEach(Subscriber::close);
+  }
+
+  @Override
+  public void stateChanged(HealthState state) {
+    var event = new Event(state.sequence(), encode(state));
+    synchronized (replay) {
+      if (replay.size() == config.getReplaySize()) {
+        replay.removeFirst();
+      }
+      replay.addLast(event);
+    }
+    try {
+      dispatcher.execute(() -> broadcast(event));
+    } catch (RejectedExecutionException e) {
+      log.debug("Health stream stopped, dropping state change {}", state.sequence());
+    }
+  }
+
+  //Last event id is -1 for new subscribers
+  void subscribe(AsyncContext asyncContext, long lastEventId) throws IOException {
+    var subscriber = new Subscriber(asyncContext, asyncContext.getResponse().getOutputStream());
+    asyncContext.addListener(subscriber);
+    subscriber.out.setWriteListener(subscriber);
+    try {
+      dispatcher.execute(() -> register(subscriber, lastEventId));
+    } catch (RejectedExecutionException e) {
+      subscriber.close();
+    }
+  }
+
+  private void register(Subscriber subscriber, long lastEventId) {
+    List<Event> backlog;
+    synchronized (replay) {
+      var first = replay.peekFirst();
+      if (lastEventId >= 0 && first != null && first.sequence() <= lastEventId + 1) {
+        backlog = replay.stream().filter(event -> event.sequence() > lastEventId).toList();
+      } else {
+        backlog = null;
+      }
+    }
+    if (backlog == null) {
+      backlog = states.changes().stream()
+          .map(state -> new Event(state.sequence(), encode(state)))
+          .toList();
+    }
+    subscriber.limit = config.getMaxPending() + backlog.size();
+    subscribers.add(subscriber);
+    backlog.forEach(subscriber::send);
+  }
+
+  private void broadcast(Event event) {
+    subscribers.forEach(subscriber -> subscriber.send(event));
+  }
+
+  private byte[] encode(HealthState state) {
+    String json;
+    try {
+      json = objectMapper.writeValueAsString(state);
+    } catch (JsonProcessingException e) {
+      log.error("Unable to encode state change {}", state.sequence(), e);
+      json = "{}";
+    }
+    return "id: %d\nevent: state\ndata: %s\n\n".formatted(state.sequence(), json)
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  //Heartbeats have a negative sequence
+  private record Event(long sequence, byte[] data) {
+
+  }
+
+  /**
+   * Subscriber with the events not yet written to it. Events are written whenever the output
+   * stream is ready and the container calls back once it becomes ready again.
+   */
+  private final class Subscriber implements WriteListener, AsyncListener {
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    //Only accessed on the dispatcher thread
+    private long lastSequence = -1;
+    private int limit;
+    private boolean listening;
+    private boolean unflushed;
+    private volatile boolean closed;
+
+    private Subscriber(AsyncContext asyncContext, ServletOutputStream out) {
+      this.asyncContext = asyncContext;
+      this.out = out;
+    }
+
+    void send(Event event) {
+      if (closed || event.sequence() >= 0 && event.sequence() <= lastSequence) {
+        return;
+      }
+      if (pendingCount.incrementAndGet() > limit) {
+        log.debug("Disconnecting slow health stream subscriber");
+        close();
+        return;
+      }
+      lastSequence = Math.max(lastSequence, event.sequence());
+      pending.add(event.data());
+      drain();
+    }
+
+    @Override
+    public void onWritePossible() {
+      synchronized (this) {
+        listening = true;
+      }
+      drain();
+    }
+
+    //Writes while the stream is ready, isReady registers for onWritePossible when it is not
+    private synchronized void drain() {
+      if (!listening || closed) {
+        return;
+      }
+      try {
+        while (out.isReady()) {
+          var data = pending.poll();
+          if (data != null) {
+            pendingCount.decrementAndGet();
+            out.write(data);
+            unflushed = true;
+          } else if (unflushed) {
+            unflushed = false;
+            out.flush();
+          } else {
+            return;
+          }
+        }
+      } catch (IOException | IllegalStateException e) {
+        close();
+      }
+    }
+
+    void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      subscribers.remove(this);
+      pending.clear();
+      try {
+        asyncContext.complete();
+      } catch (IllegalStateException e) {
+        log.debug("Health stream subscriber already completed");
+      }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+      close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+      close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      //Not restarted
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package io.dyuti.dropwizard.servlet;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Subscribes requests to the {@link HealthStream}. Subscribers resume from the Last-Event-ID
+ * header, or the lastEventId parameter for clients that can not set headers.
+ */
+public class HealthStreamServlet extends HttpServlet {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient HealthStream stream;
+
+  public HealthStreamServlet(HealthStream stream) {
+    this.stream = stream;
+  }
+
+  @Override
+  protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    var lastEventId = lastEventId(req);
+    resp.setStatus(HttpServletResponse.SC_OK);
+    resp.setContentType("text/event-stream");
+    resp.setCharacterEncoding("UTF-8");
+    resp.setHeader("Cache-Control", "no-cache");
+    resp.setHeader("X-Accel-Buffering", "no");
+    var asyncContext = req.startAsync();
+    asyncContext.setTimeout(0);
+    stream.subscribe(asyncContext, lastEventId);
+  }
+
+  private static long lastEventId(HttpServletRequest req) {
+    var lastEventId = req.getHeader("Last-Event-ID");
+    if (lastEventId == null) {
+      lastEventId = req.getParameter("lastEventId");
+    }
+    try {
+      return lastEventId == null ? -1 : Long.parseLong(lastEventId.trim());
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
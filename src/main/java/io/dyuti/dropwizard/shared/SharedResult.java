@@ -0,0 +1,8 @@
+package io.dyuti.dropwizard.shared;
+
+/**
+ * Result of a health check as published by one of the processes of the host.
+ */
+public record SharedResult(boolean healthy, String message, long completedAt) {
+
+}
@@ -0,0 +1,214 @@
+package io.dyuti.dropwizard.shared;
+
+import io.dropwizard.lifecycle.Managed;
+import io.dyuti.dropwizard.config.SharedResultsConfig;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memory mapped file of fixed size slots holding the latest health check results of the processes
+ * of a host. A slot is claimed by the hash of a health check definition, so processes running the
+ * same health check share its slot. Slots are written under a seqlock and never locked by readers.
+ * A slot retired by its last user keeps its place in the probe sequence until it is reclaimed.
+ * Every process refreshes the heartbeat of the slots it holds on the lease interval, and a slot
+ * whose heartbeat is older than three leases is retired, so the slots of a process that died
+ * without releasing them are reclaimed.
+ */
+public final class SharedResultCache implements Managed {
+
+  private static final long MAGIC = 0x4843585245533033L;
+  //Key of a retired slot, probed past like a claimed slot and reclaimed like a free one
+  static final long TOMBSTONE = -1;
+  static final int HEADER_SIZE = 64;
+  static final int SLOT_SIZE = 512;
+  //Slots probed after the home slot of a definition before giving up
+  private static final int MAX_PROBES = 16;
+  //Leases without a heartbeat after which the holders of a slot are considered gone
+  private static final int EXPIRY_LEASES = 3;
+
+  static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int slots;
+  private final long lease;
+  private final ScheduledExecutorService executor;
+  private final Set<SharedSlot> live = ConcurrentHashMap.newKeySet();
+  private ScheduledFuture<?> heartbeat;
+
+  private SharedResultCache(FileChannel channel, MappedByteBuffer buffer, int slots, long lease,
+      ScheduledExecutorService executor) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.slots = slots;
+    this.lease = lease;
+    this.executor = executor;
+  }
+
+  //Creates the file if it does not exist, an existing file must have the configured slot count
+  public static SharedResultCache open(SharedResultsConfig config,
+      ScheduledExecutorService executor) throws IOException {
+    var path = Path.of(config.getFile());
+    var slots = config.getSlots();
+    var size = HEADER_SIZE + (long) slots * SLOT_SIZE;
+    var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      FileLock lock = channel.lock();
+      try {
+        var header = ByteBuffer.allocate(16).order(ByteOrder.nativeOrder());
+        if (channel.size() == 0) {
+          channel.write(ByteBuffer.allocate(1), size - 1);
+          header.putLong(MAGIC).putInt(slots).putInt(SLOT_SIZE).flip();
+          channel.write(header, 0);
+        } else {
+          channel.read(header, 0);
+          header.flip();
+          if (channel.size() != size || header.remaining() < 16 || header.getLong() != MAGIC
+              || header.getInt() != slots || header.getInt() != SLOT_SIZE) {
+            throw new IOException("%s is not a shared result file with %d slots"
+                .formatted(path, slots));
+          }
+        }
+      } finally {
+        lock.release();
+      }
+      var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      buffer.order(ByteOrder.nativeOrder());
+      return new SharedResultCache(channel, buffer, slots, config.getLease(), executor);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public synchronized void start() {
+    if (heartbeat == null) {
+      heartbeat = executor.scheduleAtFixedRate(this::heartbeat, lease, lease,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  //Releases the slots of this process, so the last process holding a slot retires it
+  @Override
+  public synchronized void stop() throws IOException {
+    if (heartbeat != null) {
+      heartbeat.cancel(false);
+      heartbeat = null;
+    }
+    live.forEach(SharedSlot::release);
+    live.clear();
+    channel.close();
+  }
+
+  private void heartbeat() {
+    live.removeIf(SharedSlot::isReleased);
+    var now = System.currentTimeMillis();
+    live.forEach(slot -> slot.heartbeat(now));
+  }
+
+  //Identical definitions hash to the same key in every process, 0 marks a free slot
+  public static long key(String type, Object config) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256")
+          .digest((type + ':' + config).getBytes(StandardCharsets.UTF_8));
+      var key = ByteBuffer.wrap(digest).getLong();
+      return key == 0 || key == TOMBSTONE ? 1 : key;
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  //Null when the home slot of the key and the slots following it are claimed by other keys. The
+  //key is looked up up to the first free slot, then the first retired or free slot is claimed.
+  public SharedSlot slot(long key, long maxAge) {
+    var slot = find(key, maxAge);
+    if (slot != null) {
+      live.add(slot);
+    }
+    return slot;
+  }
+
+  private SharedSlot find(long key, long maxAge) {
+    var now = System.currentTimeMillis();
+    var home = Math.floorMod(key, slots);
+    var vacant = -1;
+    for (int i = 0; i < MAX_PROBES; i++) {
+      var offset = HEADER_SIZE + (home + i) % slots * SLOT_SIZE;
+      var claimed = (long) LONGS.getVolatile(buffer, offset + SharedSlot.KEY);
+      if (claimed == key) {
+        var slot = new SharedSlot(buffer, offset, key, maxAge, lease);
+        if (slot.join()) {
+          return slot;
+        }
+      } else if (claimed == TOMBSTONE || claimed == 0 || retireExpired(offset, claimed, now)) {
+        vacant = vacant < 0 ? offset : vacant;
+        if (claimed == 0) {
+          break;
+        }
+      }
+    }
+    return vacant < 0 ? null : claim(vacant, key, maxAge);
+  }
+
+  //Closing the users first keeps the key from being joined while the heartbeat is checked again
+  private boolean retireExpired(int offset, long claimed, long now) {
+    var users = (long) LONGS.getVolatile(buffer, offset + SharedSlot.USERS);
+    if (users < 0 || !isExpired(offset, now)
+        || !LONGS.compareAndSet(buffer, offset + SharedSlot.USERS, users, SharedSlot.CLOSED)) {
+      return false;
+    }
+    if (!isExpired(offset, now)) {
+      LONGS.setVolatile(buffer, offset + SharedSlot.USERS, users);
+      return false;
+    }
+    return LONGS.compareAndSet(buffer, offset + SharedSlot.KEY, claimed, TOMBSTONE);
+  }
+
+  private boolean isExpired(int offset, long now) {
+    var heartbeatAt = (long) LONGS.getVolatile(buffer, offset + SharedSlot.HEARTBEAT);
+    return now - heartbeatAt > EXPIRY_LEASES * lease;
+  }
+
+  //Another process claiming the same slot first for the same key is joined
+  private SharedSlot claim(int offset, long key, long maxAge) {
+    var slot = new SharedSlot(buffer, offset, key, maxAge, lease);
+    var claimed = (long) LONGS.getVolatile(buffer, offset + SharedSlot.KEY);
+    if (claimed == 0) {
+      //Set first, so the slot is not taken for expired before it is joined
+      LONGS.setVolatile(buffer, offset + SharedSlot.HEARTBEAT, System.currentTimeMillis());
+      if (LONGS.compareAndSet(buffer, offset + SharedSlot.KEY, 0L, key)) {
+        return slot.join() ? slot : null;
+      }
+    }
+    if (claimed == TOMBSTONE
+        && LONGS.compareAndSet(buffer, offset + SharedSlot.KEY, TOMBSTONE, key)) {
+      //Joiners wait while the result of the previous key is cleared
+      LONGS.setVolatile(buffer, offset + SharedSlot.SEQUENCE, 0L);
+      LONGS.setVolatile(buffer, offset + SharedSlot.LEASE, 0L);
+      LONGS.setVolatile(buffer, offset + SharedSlot.HEARTBEAT, System.currentTimeMillis());
+      LONGS.setVolatile(buffer, offset + SharedSlot.USERS, 1L);
+      return slot;
+    }
+    claimed = (long) LONGS.getVolatile(buffer, offset + SharedSlot.KEY);
+    return claimed == key && slot.join() ? slot : null;
+  }
+}
@@ -0,0 +1,193 @@
+package io.dyuti.dropwizard.shared;
+
+import static io.dyuti.dropwizard.shared.SharedResultCache.LONGS;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Slot of a health check definition in the {@link SharedResultCache}. The sequence is odd while a
+ * result is written, readers retry when it changed during their read. The lease holds the time
+ * until which one process evaluates the health check for the others. The users count the processes
+ * holding the slot, the last one to release it retires the slot so another definition can claim it.
+ * The heartbeat is the last time a process holding the slot was alive.
+ */
+public final class SharedSlot {
+
+  static final int SEQUENCE = 0;
+  static final int KEY = 8;
+  static final int LEASE = 16;
+  static final int COMPLETED_AT = 24;
+  static final int HEALTHY = 32;
+  static final int LENGTH = 36;
+  static final int USERS = 40;
+  static final int HEARTBEAT = 48;
+  static final int MESSAGE = 56;
+  static final int MAX_MESSAGE = SharedResultCache.SLOT_SIZE - MESSAGE;
+  //Users of a slot that is retired or reclaimed, no process may join it
+  static final long CLOSED = -1;
+  private static final int READ_ATTEMPTS = 3;
+  //Spins waiting for a slot being reclaimed by another process to open
+  private static final int JOIN_SPINS = 1_000;
+
+  private final ByteBuffer buffer;
+  private final int offset;
+  private final long maxAge;
+  private final long key;
+  private final long lease;
+  private volatile boolean released;
+
+  SharedSlot(ByteBuffer buffer, int offset, long key, long maxAge, long lease) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.key = key;
+    this.maxAge = maxAge;
+    this.lease = lease;
+  }
+
+  //False when the slot was retired while joining it, or another process did not finish claiming it
+  boolean join() {
+    for (int spin = 0; spin < JOIN_SPINS; spin++) {
+      var users = (long) LONGS.getVolatile(buffer, offset + USERS);
+      if (users >= 0) {
+        if (LONGS.compareAndSet(buffer, offset + USERS, users, users + 1)) {
+          heartbeat(System.currentTimeMillis());
+          return true;
+        }
+      } else if ((long) LONGS.getVolatile(buffer, offset + KEY) != key) {
+        return false;
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+    return false;
+  }
+
+  //Skipped once the slot was retired as expired and claimed by another key
+  void heartbeat(long now) {
+    if (isOwned()) {
+      LONGS.setVolatile(buffer, offset + HEARTBEAT, now);
+    }
+  }
+
+  boolean isReleased() {
+    return released;
+  }
+
+  private boolean isOwned() {
+    return !released && (long) LONGS.getVolatile(buffer, offset + KEY) == key;
+  }
+
+  //The last user retires the slot, one held by a process that died is retired once it expires
+  public void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    while (true) {
+      var users = (long) LONGS.getVolatile(buffer, offset + USERS);
+      if (users <= 0) {
+        return;
+      } else if (users == 1) {
+        if (LONGS.compareAndSet(buffer, offset + USERS, users, CLOSED)) {
+          LONGS.setVolatile(buffer, offset + KEY, SharedResultCache.TOMBSTONE);
+          return;
+        }
+      } else if (LONGS.compareAndSet(buffer, offset + USERS, users, users - 1)) {
+        return;
+      }
+    }
+  }
+
+  //Null when no result was published yet or it kept changing while being read
+  public SharedResult read() {
+    if (!isOwned()) {
+      return null;
+    }
+    for (int attempt = 0; attempt < READ_ATTEMPTS; attempt++) {
+      var before = (long) LONGS.getAcquire(buffer, offset + SEQUENCE);
+      if (before == 0) {
+        return null;
+      }
+      if ((before & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      var completedAt = buffer.getLong(offset + COMPLETED_AT);
+      var healthy = buffer.getInt(offset + HEALTHY) != 0;
+      var length = buffer.getInt(offset + LENGTH);
+      String message = null;
+      if (length >= 0 && length <= MAX_MESSAGE) {
+        var bytes = new byte[length];
+        buffer.get(offset + MESSAGE, bytes);
+        message = new String(bytes, StandardCharsets.UTF_8);
+      }
+      VarHandle.loadLoadFence();
+      if ((long) LONGS.getVolatile(buffer, offset + SEQUENCE) == before) {
+        return new SharedResult(healthy, message, completedAt);
+      }
+    }
+    return null;
+  }
+
+  public boolean isFresh(SharedResult result, long now) {
+    return now - result.completedAt() <= maxAge;
+  }
+
+  //Served while another process holds the lease, so an expired result is not probed by all
+  public boolean isRecent(SharedResult result, long now) {
+    return now - result.completedAt() <= maxAge + lease;
+  }
+
+  //Returns the lease to publish with, or 0 when another process holds the lease
+  public long tryLease(long now) {
+    var held = (long) LONGS.getVolatile(buffer, offset + LEASE);
+    var until = now + lease;
+    return held <= now && LONGS.compareAndSet(buffer, offset + LEASE, held, until) ? until : 0;
+  }
+
+  //A write left unfinished by a process that died is taken over by the next lease holder. The
+  //lease is checked again once the sequence is odd, so a holder whose lease expired and was taken
+  //over while it evaluated backs off instead of writing along with the new holder.
+  public void publish(long until, boolean healthy, String message) {
+    if (!isOwned()) {
+      return;
+    }
+    var sequence = (long) LONGS.getVolatile(buffer, offset + SEQUENCE);
+    var writing = (sequence & 1) == 0 ? sequence + 1 : sequence + 2;
+    if (LONGS.compareAndSet(buffer, offset + SEQUENCE, sequence, writing)) {
+      if ((long) LONGS.getVolatile(buffer, offset + LEASE) != until
+          || System.currentTimeMillis() >= until || !isOwned()) {
+        //Nothing was written, so the sequence is restored, still odd for an unfinished write
+        LONGS.compareAndSet(buffer, offset + SEQUENCE, writing, sequence);
+        return;
+      }
+      VarHandle.storeStoreFence();
+      var bytes = message == null ? null : encode(message);
+      buffer.putLong(offset + COMPLETED_AT, System.currentTimeMillis());
+      buffer.putInt(offset + HEALTHY, healthy ? 1 : 0);
+      buffer.putInt(offset + LENGTH, bytes == null ? -1 : bytes.length);
+      if (bytes != null) {
+        buffer.put(offset + MESSAGE, bytes);
+      }
+      LONGS.compareAndSet(buffer, offset + SEQUENCE, writing, writing + 1);
+    }
+    LONGS.compareAndSet(buffer, offset + LEASE, until, 0L);
+  }
+
+  //Truncated to the slot without splitting a character
+  private static byte[] encode(String message) {
+    var bytes = message.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length <= MAX_MESSAGE) {
+      return bytes;
+    }
+    var length = MAX_MESSAGE;
+    while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+      length--;
+    }
+    var truncated = new byte[length];
+    System.arraycopy(bytes, 0, truncated, 0, length);
+    return truncated;
+  }
+}
@@ -0,0 +1,20 @@
+package io.dyuti.dropwizard.state;
+
+/**
+ * State of a health check since its last state change. The sequence orders state changes across
+ * all health checks.
+ */
+public record HealthState(long sequence, String name, Status status, String message,
+                          long changedAt) {
+
+  public enum Status {
+    PENDING,
+    HEALTHY,
+    UNHEALTHY,
+    REMOVED
+  }
+
+  public boolean isHealthy() {
+    return status == Status.HEALTHY;
+  }
+}
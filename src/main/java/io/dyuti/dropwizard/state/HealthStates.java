@@ -0,0 +1,83 @@
+package io.dyuti.dropwizard.state;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.state.HealthState.Status;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Latest state of every health check of the bundle. Results that keep the state of a health check
+ * are dropped without allocating, state changes are numbered and handed to the listeners in
+ * sequence order.
+ */
+public class HealthStates {
+
+  /**
+   * Notified of every state change while the states are locked, so it must not block.
+   */
+  public interface Listener {
+
+    void stateChanged(HealthState state);
+  }
+
+  private final Map<String, HealthState> states = new ConcurrentSkipListMap<>();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private long sequence;
+
+  //Health checks are pending until their first result
+  public synchronized void register(String name) {
+    change(name, Status.PENDING, "Health check %s has not completed yet".formatted(name));
+  }
+
+  //Listeners receive a removed state, which is not kept
+  public synchronized void remove(String name) {
+    if (states.remove(name) != null) {
+      var state = new HealthState(++sequence, name, Status.REMOVED,
+          "Health check %s was removed".formatted(name), System.currentTimeMillis());
+      listeners.forEach(listener -> listener.stateChanged(state));
+    }
+  }
+
+  public void update(String name, Result result) {
+    var status = result.isHealthy() ? Status.HEALTHY : Status.UNHEALTHY;
+    var current = states.get(name);
+    if (current == null || current.status() == status) {
+      return;
+    }
+    synchronized (this) {
+      current = states.get(name);
+      if (current != null && current.status() != status) {
+        change(name, status, result.getMessage());
+      }
+    }
+  }
+
+  public void addListener(Listener listener) {
+    listeners.add(listener);
+  }
+
+  public Collection<HealthState> states() {
+    return states.values();
+  }
+
+  //Consistent copy of the states ordered by the sequence of their last change
+  public synchronized List<HealthState> changes() {
+    return states.values().stream()
+        .sorted(Comparator.comparingLong(HealthState::sequence))
+        .toList();
+  }
+
+  public synchronized long sequence() {
+    return sequence;
+  }
+
+  private void change(String name, Status status, String message) {
+    var state = new HealthState(++sequence, name, status, message, System.currentTimeMillis());
+    states.put(name, state);
+    listeners.forEach(listener -> listener.stateChanged(state));
+  }
+}
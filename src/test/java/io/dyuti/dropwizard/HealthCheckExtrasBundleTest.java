@@ -0,0 +1,150 @@
+package io.dyuti.dropwizard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricRegistryListener;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import io.dropwizard.Configuration;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.lifecycle.JettyManaged;
+import io.dropwizard.setup.Environment;
+import io.dyuti.dropwizard.alert.AsyncAlertPublisher;
+import io.dyuti.dropwizard.config.HealthcheckExtrasConfig;
+import io.dyuti.dropwizard.config.MetricHealthCheckConfig;
+import io.dyuti.dropwizard.config.MetricMatch;
+import io.dyuti.dropwizard.config.MetricType;
+import io.dyuti.dropwizard.scheduler.HealthCheckScheduler;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.PatternSyntaxException;
+import javax.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class HealthCheckExtrasBundleTest {
+
+  private final CountingMetricRegistry metrics = new CountingMetricRegistry();
+  private final HealthCheckRegistry healthChecks = new HealthCheckRegistry();
+  private final HealthcheckExtrasConfig extras = new HealthcheckExtrasConfig();
+  private Environment environment;
+  private HealthCheckExtrasBundle<Configuration> bundle;
+
+  @BeforeEach
+  void setUp() {
+    environment = new Environment("test", Jackson.newObjectMapper(),
+        Validation.buildDefaultValidatorFactory(), metrics, getClass().getClassLoader(),
+        healthChecks, new Configuration());
+    bundle = new HealthCheckExtrasBundle<>() {
+      @Override
+      public HealthcheckExtrasConfig getConfig(Configuration configuration) {
+        return extras;
+      }
+    };
+    bundle.initialize(null);
+  }
+
+  @Test
+  void asyncAlertsAreStoppedAfterScheduler() {
+    extras.getAlerts().setAsync(true);
+    bundle.run(new Configuration(), environment);
+
+    //Managed objects are stopped in reverse order
+    var managed = environment.lifecycle().getManagedObjects().stream()
+        .map(lifeCycle -> ((JettyManaged) lifeCycle).getManaged()).toList();
+    var publisher = indexOf(managed, AsyncAlertPublisher.class);
+    var scheduler = indexOf(managed, HealthCheckScheduler.class);
+    assertTrue(publisher >= 0 && publisher < scheduler);
+  }
+
+  @Test
+  void reloadReleasesMetricListenersAndSelections() {
+    bundle.run(new Configuration(), environment);
+    var baseline = metrics.listeners.get();
+    bundle.apply(checks(metric("exact", MetricMatch.EXACT, "requests"),
+        metric("glob", MetricMatch.GLOB, "requests.*")));
+    //One handle for the EXACT check and one index for the GLOB check
+    assertEquals(baseline + 2, metrics.listeners.get());
+
+    bundle.apply(checks(metric("exact", MetricMatch.EXACT, "errors"),
+        metric("glob", MetricMatch.GLOB, "errors.*")));
+    assertEquals(baseline + 2, metrics.listeners.get());
+
+    //The index only detaches from the registry once its last selection is released
+    bundle.apply(checks());
+    assertEquals(baseline, metrics.listeners.get());
+  }
+
+  @Test
+  void failedReloadKeepsRegisteredHealthChecks() {
+    bundle.run(new Configuration(), environment);
+    bundle.apply(checks(metric("glob", MetricMatch.GLOB, "requests.*")));
+    var registered = healthChecks.getHealthCheck("glob");
+    var listeners = metrics.listeners.get();
+
+    //The new EXACT check is created before the invalid REGEX fails to compile
+    assertThrows(PatternSyntaxException.class, () -> bundle.apply(checks(
+        metric("exact", MetricMatch.EXACT, "requests"),
+        metric("glob", MetricMatch.REGEX, "requests["))));
+
+    assertSame(registered, healthChecks.getHealthCheck("glob"));
+    assertFalse(healthChecks.getNames().contains("exact"));
+    assertEquals(listeners, metrics.listeners.get());
+  }
+
+  @Test
+  void snapshotRequiresScheduledHealthChecks() {
+    extras.getSnapshot().setEnabled(true);
+    extras.setMetric(List.of(metric("exact", MetricMatch.EXACT, "requests")));
+    var thrown = assertThrows(IllegalArgumentException.class,
+        () -> bundle.run(new Configuration(), environment));
+    assertEquals("Health check exact must be scheduled to be served by the health snapshot",
+        thrown.getMessage());
+  }
+
+  private static int indexOf(List<?> managed, Class<?> type) {
+    for (int i = 0; i < managed.size(); i++) {
+      if (type.isInstance(managed.get(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static HealthcheckExtrasConfig checks(MetricHealthCheckConfig... metricChecks) {
+    var checks = new HealthcheckExtrasConfig();
+    checks.setMetric(List.of(metricChecks));
+    return checks;
+  }
+
+  private static MetricHealthCheckConfig metric(String name, MetricMatch match, String metric) {
+    var config = new MetricHealthCheckConfig();
+    config.setName(name);
+    config.setMetric(metric);
+    config.setMatch(match);
+    config.setType(MetricType.COUNTER);
+    config.setDimension("count");
+    return config;
+  }
+
+  private static class CountingMetricRegistry extends MetricRegistry {
+
+    private final AtomicInteger listeners = new AtomicInteger();
+
+    @Override
+    public void addListener(MetricRegistryListener listener) {
+      super.addListener(listener);
+      listeners.incrementAndGet();
+    }
+
+    @Override
+    public void removeListener(MetricRegistryListener listener) {
+      super.removeListener(listener);
+      listeners.decrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package io.dyuti.dropwizard.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.config.AlertConfig;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AlertStateTrackerTest {
+
+  private final List<String> delivered = new ArrayList<>();
+
+  @Test
+  void removedHealthCheckStartsOverHealthy() {
+    var config = new AlertConfig();
+    config.setFailureThreshold(2);
+    var tracker = new AlertStateTracker((name, result) -> delivered.add("alert " + name), config);
+
+    tracker.onResult("db", Result.unhealthy("down"));
+    tracker.remove("db");
+    //The streak before the removal does not count towards the failure threshold
+    tracker.onResult("db", Result.unhealthy("down"));
+    assertEquals(List.of(), delivered);
+
+    tracker.onResult("db", Result.unhealthy("down"));
+    assertEquals(List.of("alert db"), delivered);
+  }
+}
@@ -0,0 +1,57 @@
+package io.dyuti.dropwizard.alert;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dyuti.dropwizard.config.AlertConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class AsyncAlertPublisherTest {
+
+  private final List<String> delivered = new ArrayList<>();
+  private final AsyncAlertPublisher publisher = new AsyncAlertPublisher(new AlertPublisher() {
+    @Override
+    public void publish(String name, Result result) {
+      delivered.add("alert " + name + ": " + result.getMessage());
+    }
+
+    @Override
+    public void publishAll(Map<String, Result> alerts) {
+      alerts.forEach(this::publish);
+    }
+
+    @Override
+    public void resolve(String name, Result result) {
+      delivered.add("recovery " + name);
+    }
+  }, new AlertConfig(), new MetricRegistry());
+
+  @Test
+  void recoveryIsDeliveredAfterPendingAlert() throws InterruptedException {
+    publisher.publish("db", Result.unhealthy("down"));
+    publisher.resolve("db", Result.healthy());
+    flush();
+
+    assertEquals(List.of("alert db: down", "recovery db"), delivered);
+  }
+
+  @Test
+  void alertReplacesPendingAlertAndRecovery() throws InterruptedException {
+    publisher.publish("db", Result.unhealthy("down"));
+    publisher.resolve("db", Result.healthy());
+    publisher.publish("db", Result.unhealthy("down again"));
+    flush();
+
+    assertEquals(List.of("alert db: down again"), delivered);
+  }
+
+  //Pending alerts are flushed on stop
+  private void flush() throws InterruptedException {
+    publisher.start();
+    publisher.stop();
+  }
+}
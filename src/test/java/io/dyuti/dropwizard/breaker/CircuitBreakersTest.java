@@ -0,0 +1,30 @@
+package io.dyuti.dropwizard.breaker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.dyuti.dropwizard.config.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakersTest {
+
+  @Test
+  void breakerIsRemovedWithItsLastHolder() {
+    var config = new CircuitBreakerConfig();
+    config.setEnabled(true);
+    var circuitBreakers = new CircuitBreakers(config);
+
+    var first = circuitBreakers.acquire("db:5432");
+    var second = circuitBreakers.acquire("db:5432");
+    assertSame(first, second);
+
+    circuitBreakers.release(first);
+    assertEquals(1, circuitBreakers.size());
+    circuitBreakers.release(second);
+    assertEquals(0, circuitBreakers.size());
+
+    //A target added again by a later reload starts with a closed circuit
+    assertNotSame(first, circuitBreakers.acquire("db:5432"));
+  }
+}
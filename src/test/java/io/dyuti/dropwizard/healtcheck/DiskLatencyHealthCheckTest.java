@@ -0,0 +1,62 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.dyuti.dropwizard.config.DiskLatencyHealthCheckConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskLatencyHealthCheckTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void probeFileStaysInDirectoryAndIsDeletedOnRelease() throws IOException {
+    Files.createDirectory(directory.resolve("data"));
+    var healthCheck = new DiskLatencyHealthCheck(
+        config("../escaped", directory.resolve("data"), 500), (name, result) -> { });
+
+    assertTrue(healthCheck.execute().isHealthy());
+    assertEquals(List.of(".healthcheck-extras-.._escaped.probe"), files(directory.resolve("data")));
+    assertEquals(List.of("data"), files(directory));
+
+    healthCheck.release();
+    assertEquals(List.of(), files(directory.resolve("data")));
+  }
+
+  @Test
+  void subMillisecondThreshold() {
+    //No sync completes within a nanosecond, while whole milliseconds would truncate it to 0
+    var healthCheck = new DiskLatencyHealthCheck(config("fast", directory, 0.000001),
+        (name, result) -> { });
+    try {
+      assertFalse(healthCheck.execute().isHealthy());
+    } finally {
+      healthCheck.release();
+    }
+  }
+
+  private static DiskLatencyHealthCheckConfig config(String name, Path path, double threshold) {
+    var config = new DiskLatencyHealthCheckConfig();
+    config.setName(name);
+    config.setPath(path.toString());
+    config.setWrites(1);
+    config.setThreshold(threshold);
+    return config;
+  }
+
+  private static List<String> files(Path path) throws IOException {
+    try (var files = Files.list(path)) {
+      return files.map(file -> file.getFileName().toString()).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+}
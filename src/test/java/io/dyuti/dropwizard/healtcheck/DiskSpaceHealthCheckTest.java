@@ -0,0 +1,61 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.dyuti.dropwizard.config.DiskSpaceHealthCheckConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import javax.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskSpaceHealthCheckTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void limitIsRequired() {
+    var config = config(0);
+    config.setHorizon(0);
+    var violations = Validation.buildDefaultValidatorFactory().getValidator().validate(config);
+    assertEquals(1, violations.size());
+    assertEquals("threshold, minUsablePercent or horizon is required",
+        violations.iterator().next().getMessage());
+  }
+
+  @Test
+  void burstOfWritesDoesNotProjectFullDiskWithinSampleInterval() throws IOException {
+    assertTrue(evaluateDuringBurst(config(60000)));
+  }
+
+  @Test
+  void burstOfWritesProjectsFullDiskWithoutSampleInterval() throws IOException {
+    assertFalse(evaluateDuringBurst(config(0)));
+  }
+
+  //Writes 16 MB between evaluations, a fill rate that fills any disk within a year
+  private boolean evaluateDuringBurst(DiskSpaceHealthCheckConfig config) throws IOException {
+    var healthCheck = new DiskSpaceHealthCheck(config, (name, result) -> { });
+    var block = new byte[16 * 1024 * 1024];
+    var healthy = true;
+    for (int i = 0; i < 4; i++) {
+      Files.write(directory.resolve("burst-" + i), block);
+      healthy = healthCheck.execute().isHealthy();
+    }
+    return healthy;
+  }
+
+  private DiskSpaceHealthCheckConfig config(long sampleInterval) {
+    var config = new DiskSpaceHealthCheckConfig();
+    config.setName("disk");
+    config.setPath(directory.toString());
+    config.setHorizon(TimeUnit.DAYS.toMillis(365));
+    config.setSampleInterval(sampleInterval);
+    return config;
+  }
+}
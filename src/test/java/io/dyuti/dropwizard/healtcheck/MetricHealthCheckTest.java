@@ -0,0 +1,98 @@
+package io.dyuti.dropwizard.healtcheck;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import io.dropwizard.setup.Environment;
+import io.dyuti.dropwizard.config.MetricEvaluation;
+import io.dyuti.dropwizard.config.MetricHealthCheckConfig;
+import io.dyuti.dropwizard.config.MetricType;
+import io.dyuti.dropwizard.config.ThresholdComparison;
+import javax.validation.Validation;
+import org.junit.jupiter.api.Test;
+
+class MetricHealthCheckTest {
+
+  private final Environment environment = new Environment("test");
+  private volatile double value;
+
+  @Test
+  void fractionalThreshold() {
+    var config = gauge("error-ratio", MetricEvaluation.VALUE, ThresholdComparison.ABOVE, 0.5);
+    var healthCheck = new MetricHealthCheck(environment, config, (name, result) -> { });
+
+    value = 0.4;
+    assertTrue(healthCheck.execute().isHealthy());
+    value = 0.6;
+    assertFalse(healthCheck.execute().isHealthy());
+  }
+
+  @Test
+  void negativeSlopeThreshold() throws InterruptedException {
+    var config = gauge("queue-size", MetricEvaluation.SLOPE, ThresholdComparison.BELOW, -10);
+    config.setWindow(3);
+    assertTrue(Validation.buildDefaultValidatorFactory().getValidator().validate(config).isEmpty());
+    var healthCheck = new MetricHealthCheck(environment, config, (name, result) -> { });
+
+    //Growing by 1 every 10 ms is a slope of about 100 per second
+    for (int i = 0; i < 3; i++) {
+      value = i;
+      assertTrue(healthCheck.execute().isHealthy());
+      Thread.sleep(10);
+    }
+    //Falling by 2 every 10 ms is a slope of about -200 per second
+    for (int i = 0; i < 3; i++) {
+      value = -2 * i;
+      healthCheck.execute();
+      Thread.sleep(10);
+    }
+    value = -6;
+    assertFalse(healthCheck.execute().isHealthy());
+  }
+
+  @Test
+  void breachesBeyondBreachWindowAreRejected() {
+    var config = gauge("latency", MetricEvaluation.VALUE, ThresholdComparison.ABOVE, 100);
+    config.setBreaches(5);
+    config.setBreachWindow(3);
+    var violations = Validation.buildDefaultValidatorFactory().getValidator().validate(config);
+    assertEquals(1, violations.size());
+    assertEquals("breaches must not exceed breachWindow",
+        violations.iterator().next().getMessage());
+
+    config.setBreaches(64);
+    config.setBreachWindow(65);
+    violations = Validation.buildDefaultValidatorFactory().getValidator().validate(config);
+    assertEquals(1, violations.size());
+    assertEquals("breachWindow", violations.iterator().next().getPropertyPath().toString());
+  }
+
+  @Test
+  void fullBreachWindowOfSixtyFourEvaluations() {
+    var config = gauge("backlog", MetricEvaluation.VALUE, ThresholdComparison.ABOVE, 100);
+    config.setBreaches(64);
+    config.setBreachWindow(64);
+    var healthCheck = new MetricHealthCheck(environment, config, (name, result) -> { });
+
+    value = 200;
+    for (int i = 0; i < 63; i++) {
+      assertTrue(healthCheck.execute().isHealthy());
+    }
+    assertFalse(healthCheck.execute().isHealthy());
+  }
+
+  private MetricHealthCheckConfig gauge(String name, MetricEvaluation evaluation,
+      ThresholdComparison comparison, double threshold) {
+    environment.metrics().register(name, (Gauge<Double>) () -> value);
+    var config = new MetricHealthCheckConfig();
+    config.setName(name + "-check");
+    config.setMetric(name);
+    config.setType(MetricType.GAUGE);
+    config.setEvaluation(evaluation);
+    config.setComparison(comparison);
+    config.setThreshold(threshold);
+    return config;
+  }
+}
@@ -0,0 +1,35 @@
+package io.dyuti.dropwizard.metric;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.codahale.metrics.Counter;
+import io.dyuti.dropwizard.config.MetricType;
+import io.dyuti.dropwizard.metric.MetricSelection.Member;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+class MetricSelectionTest {
+
+  private final MetricSelection selection =
+      new MetricSelection(MetricType.COUNTER, Pattern.compile("requests\\..*"));
+
+  @Test
+  void keepsRegistrationOrderAcrossReplaceAndRemove() {
+    var first = new Counter();
+    var second = new Counter();
+    var replaced = new Counter();
+    selection.offer("requests.a", first);
+    selection.offer("errors.a", new Counter());
+    selection.offer("requests.b", second);
+    var snapshot = selection.members();
+    assertSame(snapshot, selection.members());
+
+    selection.offer("requests.a", replaced);
+    assertArrayEquals(new Member[] {new Member("requests.a", replaced),
+        new Member("requests.b", second)}, selection.members());
+
+    selection.remove("requests.a");
+    assertArrayEquals(new Member[] {new Member("requests.b", second)}, selection.members());
+  }
+}
@@ -0,0 +1,81 @@
+package io.dyuti.dropwizard.servlet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.codahale.metrics.health.HealthCheck.Result;
+import io.dropwizard.jackson.Jackson;
+import io.dyuti.dropwizard.state.HealthStates;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+class HealthSnapshotServletTest {
+
+  private final HealthStates states = new HealthStates();
+  private final HealthSnapshotServlet servlet =
+      new HealthSnapshotServlet(new HealthSnapshot(states, Jackson.newObjectMapper()), true);
+
+  @Test
+  void notModifiedOnlyWhileHealthy() throws IOException {
+    states.register("db");
+    states.update("db", Result.healthy());
+    var etag = get(null).get("ETag");
+    assertEquals(304, get(etag).get("status"));
+
+    states.update("db", Result.unhealthy("down"));
+    etag = get(null).get("ETag");
+    var unhealthy = get(etag);
+    assertEquals(500, unhealthy.get("status"));
+    assertEquals("{\"healthy\":false}", unhealthy.get("body"));
+  }
+
+  //Status, headers and body of the response
+  private Map<String, Object> get(Object ifNoneMatch) throws IOException {
+    var response = new HashMap<String, Object>();
+    var body = new ByteArrayOutputStream();
+    var request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {HttpServletRequest.class},
+        (proxy, method, args) -> method.getName().equals("getHeader")
+            && "If-None-Match".equals(args[0]) ? ifNoneMatch : null);
+    var output = new ServletOutputStream() {
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      @Override
+      public void setWriteListener(WriteListener writeListener) {
+      }
+
+      @Override
+      public void write(int b) {
+        body.write(b);
+      }
+    };
+    var servletResponse = (HttpServletResponse) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] {HttpServletResponse.class},
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "setStatus" -> response.put("status", args[0]);
+            case "setHeader" -> response.put((String) args[0], args[1]);
+            case "getOutputStream" -> {
+              return output;
+            }
+            default -> {
+              //Content type and length are not checked
+            }
+          }
+          return null;
+        });
+    servlet.doGet(request, servletResponse);
+    response.put("body", body.toString());
+    return response;
+  }
+}
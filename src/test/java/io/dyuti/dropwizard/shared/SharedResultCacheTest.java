@@ -0,0 +1,101 @@
+package io.dyuti.dropwizard.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.dyuti.dropwizard.config.SharedResultsConfig;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedResultCacheTest {
+
+  private static final long LEASE = 10_000;
+
+  @TempDir
+  Path directory;
+  private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void lastReleaseFreesSlotForOtherKeys() throws IOException {
+    var cache = open(LEASE);
+    var first = cache.slot(1, 5000);
+    var second = cache.slot(1, 5000);
+    first.publish(first.tryLease(System.currentTimeMillis()), false, "down");
+    assertNull(cache.slot(2, 5000));
+
+    first.release();
+    assertNull(cache.slot(2, 5000));
+    second.release();
+
+    var other = cache.slot(2, 5000);
+    assertNotNull(other);
+    //The result of the previous key is not served for the new one
+    assertNull(other.read());
+  }
+
+  @Test
+  void stopReleasesSlotsOfProcess() throws IOException {
+    var stopped = open(LEASE);
+    stopped.slot(1, 5000);
+    var other = open(LEASE);
+    assertNull(other.slot(2, 5000));
+
+    stopped.stop();
+    assertNotNull(other.slot(2, 5000));
+  }
+
+  @Test
+  void slotOfDeadProcessIsReclaimedOnceExpired() throws IOException, InterruptedException {
+    //Never started or stopped, like a process that died holding the slot
+    open(100).slot(1, 5000);
+    var other = open(100);
+    other.start();
+    assertNull(other.slot(2, 5000));
+
+    Thread.sleep(400);
+    var reclaimed = other.slot(2, 5000);
+    assertNotNull(reclaimed);
+
+    //The heartbeat keeps the live slot from expiring
+    Thread.sleep(400);
+    assertNull(open(100).slot(3, 5000));
+    assertNull(reclaimed.read());
+  }
+
+  @Test
+  void expiredLeaseHolderDoesNotPublish() throws IOException {
+    var cache = open(LEASE);
+    var holder = cache.slot(1, 5000);
+    var taker = cache.slot(1, 5000);
+    var now = System.currentTimeMillis();
+    var expired = holder.tryLease(now);
+    var taken = taker.tryLease(now + LEASE);
+    assertTrue(taken > expired);
+
+    holder.publish(expired, false, "stale");
+    assertNull(taker.read());
+
+    taker.publish(taken, true, "fresh");
+    var result = taker.read();
+    assertTrue(result.healthy());
+    assertEquals("fresh", result.message());
+  }
+
+  //A single slot, so every key competes for it
+  private SharedResultCache open(long lease) throws IOException {
+    return SharedResultCache.open(new SharedResultsConfig(true,
+        directory.resolve("results").toString(), 1, 5000, lease), executor);
+  }
+}